@@ -0,0 +1,107 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.util.Arrays;
+
+/**
+ * The `FlatAStar` class is the plain A* search over every cell that `PathfindingService` is measured against.
+ * It keeps its state in arrays over the whole maze and a heap of packed longs, so the comparison is between the two
+ * ways of searching, not between boxed and unboxed numbers.
+ */
+class FlatAStar {
+
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final int[] cost;
+    private final int[] reached;
+    private int search;
+    private long[] open = new long[1024];
+    private int openSize;
+
+    FlatAStar(MazeGrid grid) {
+        cells = grid.getCells();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        cost = new int[cells.length];
+        reached = new int[cells.length];
+    }
+
+    /**
+     * @return The length of the shortest way between two floor cells, or -1 if there is none.
+     */
+    int distance(int start, int goal) {
+        search++;
+        openSize = 0;
+        reach(start, 0, goal);
+        while (openSize > 0) {
+            long entry = pop();
+            int cell = (int) entry;
+            int cellCost = cost[cell];
+            if ((int) (entry >>> 32) > cellCost + estimate(cell, goal)) {
+                continue; // Reached again through a shorter way since
+            }
+            if (cell == goal) {
+                return cellCost;
+            }
+            int col = cell % width;
+            int row = cell / width;
+            if (col + 1 < width) {
+                reach(cell + 1, cellCost + 1, goal);
+            }
+            if (col > 0) {
+                reach(cell - 1, cellCost + 1, goal);
+            }
+            if (row + 1 < height) {
+                reach(cell + width, cellCost + 1, goal);
+            }
+            if (row > 0) {
+                reach(cell - width, cellCost + 1, goal);
+            }
+        }
+        return -1;
+    }
+
+    private void reach(int cell, int newCost, int goal) {
+        if (cells[cell] == 0 || reached[cell] == search && cost[cell] <= newCost) {
+            return;
+        }
+        reached[cell] = search;
+        cost[cell] = newCost;
+        push((long) (newCost + estimate(cell, goal)) << 32 | cell);
+    }
+
+    private int estimate(int cell, int goal) {
+        return Math.abs(cell % width - goal % width) + Math.abs(cell / width - goal / width);
+    }
+
+    private void push(long entry) {
+        if (openSize == open.length) {
+            open = Arrays.copyOf(open, openSize * 2);
+        }
+        int i = openSize++;
+        while (i > 0 && open[(i - 1) >> 1] > entry) {
+            open[i] = open[(i - 1) >> 1];
+            i = (i - 1) >> 1;
+        }
+        open[i] = entry;
+    }
+
+    private long pop() {
+        long top = open[0];
+        long last = open[--openSize];
+        int i = 0;
+        while (2 * i + 1 < openSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < openSize && open[child + 1] < open[child]) {
+                child++;
+            }
+            if (last <= open[child]) {
+                break;
+            }
+            open[i] = open[child];
+            i = child;
+        }
+        open[i] = last;
+        return top;
+    }
+}
@@ -0,0 +1,166 @@
+package de.tum.cit.ase.maze.Map;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `PathfindingBenchmark` class times long queries on generated 4000x4000 mazes, `PathfindingService` against a
+ * plain A* over every cell. Run it with `./gradlew core:jmh`. The queries go round a list much longer than the
+ * service remembers ways, so every uncached call searches again, while `waypointsCached` asks for the same way over
+ * and over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathfindingBenchmark {
+
+    private static final int SIZE = 4000;
+    private static final int QUERIES = 512;
+
+    /**
+     * corridors: a maze of one cell wide corridors, with a few of their walls knocked out.
+     * pillars: the same maze with most of its walls knocked out, which leaves mostly single wall cells.
+     * scattered: open floor with short walls thrown onto it.
+     */
+    @Param({"corridors", "pillars", "scattered"})
+    public String maze;
+
+    private PathfindingService service;
+    private FlatAStar flat;
+    private int[] starts;
+    private int[] goals;
+    private int next;
+    private final IntArray result = new IntArray();
+
+    @Setup
+    public void setUp() {
+        MazeGrid grid = new MazeGrid(SIZE, SIZE, generate(maze, new Random(1)));
+        service = new PathfindingService(grid);
+        flat = new FlatAStar(grid);
+
+        // Pairs of cells across at least half of the maze that have a way between them
+        Random random = new Random(2);
+        starts = new int[QUERIES];
+        goals = new int[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            int start = randomFloor(grid, random);
+            int goal = randomFloor(grid, random);
+            int across = Math.abs(start % SIZE - goal % SIZE) + Math.abs(start / SIZE - goal / SIZE);
+            if (across >= SIZE / 2 && service.findWaypoints(start % SIZE, start / SIZE, goal % SIZE, goal / SIZE, result)) {
+                starts[i] = start;
+                goals[i] = goal;
+                i++;
+            }
+        }
+    }
+
+    @Benchmark
+    public int flatAStar() {
+        int i = nextQuery();
+        return flat.distance(starts[i], goals[i]);
+    }
+
+    @Benchmark
+    public IntArray waypointsUncached() {
+        int i = nextQuery();
+        service.findWaypoints(starts[i] % SIZE, starts[i] / SIZE, goals[i] % SIZE, goals[i] / SIZE, result);
+        return result;
+    }
+
+    @Benchmark
+    public IntArray waypointsCached() {
+        service.findWaypoints(starts[0] % SIZE, starts[0] / SIZE, goals[0] % SIZE, goals[0] / SIZE, result);
+        return result;
+    }
+
+    @Benchmark
+    public IntArray pathUncached() {
+        int i = nextQuery();
+        service.findPath(starts[i] % SIZE, starts[i] / SIZE, goals[i] % SIZE, goals[i] / SIZE, result);
+        return result;
+    }
+
+    private int nextQuery() {
+        next = (next + 1) % QUERIES;
+        return next;
+    }
+
+    private static int randomFloor(MazeGrid grid, Random random) {
+        int cell;
+        do {
+            cell = random.nextInt(SIZE * SIZE);
+        } while (grid.getCells()[cell] == 0);
+        return cell;
+    }
+
+    private static byte[] generate(String maze, Random random) {
+        byte[] cells = new byte[SIZE * SIZE];
+        if (maze.equals("scattered")) {
+            Arrays.fill(cells, (byte) 6);
+            for (int i = 0; i < SIZE * SIZE / 200; i++) {
+                int col = random.nextInt(SIZE);
+                int row = random.nextInt(SIZE);
+                boolean isAcross = random.nextBoolean();
+                for (int k = 0; k < 20 && (isAcross ? col + k : row + k) < SIZE; k++) {
+                    cells[(isAcross ? row : row + k) * SIZE + (isAcross ? col + k : col)] = 0;
+                }
+            }
+            return cells;
+        }
+
+        // A depth-first maze on the odd cells, then walls between two of them knocked out at random
+        int[] stack = new int[SIZE * SIZE / 4];
+        int[] order = {0, 1, 2, 3};
+        int[] stepX = {2, -2, 0, 0};
+        int[] stepY = {0, 0, 2, -2};
+        int top = 0;
+        stack[top++] = SIZE + 1;
+        cells[SIZE + 1] = 6;
+        while (top > 0) {
+            int col = stack[top - 1] % SIZE;
+            int row = stack[top - 1] / SIZE;
+            for (int i = 3; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            boolean moved = false;
+            for (int direction : order) {
+                int nextCol = col + stepX[direction];
+                int nextRow = row + stepY[direction];
+                if (nextCol > 0 && nextRow > 0 && nextCol < SIZE - 1 && nextRow < SIZE - 1
+                        && cells[nextRow * SIZE + nextCol] == 0) {
+                    cells[(row + stepY[direction] / 2) * SIZE + col + stepX[direction] / 2] = 6;
+                    cells[nextRow * SIZE + nextCol] = 6;
+                    stack[top++] = nextRow * SIZE + nextCol;
+                    moved = true;
+                    break;
+                }
+            }
+            if (!moved) {
+                top--;
+            }
+        }
+        long knockOuts = maze.equals("pillars") ? 2L * SIZE * SIZE : SIZE * SIZE / 2;
+        for (long i = 0; i < knockOuts; i++) {
+            int col = 1 + random.nextInt(SIZE - 2);
+            int row = 1 + random.nextInt(SIZE - 2);
+            if ((col + row) % 2 == 1) {
+                cells[row * SIZE + col] = 6;
+            }
+        }
+        return cells;
+    }
+}
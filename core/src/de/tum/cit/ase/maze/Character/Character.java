@@ -1,7 +1,6 @@
 package de.tum.cit.ase.maze.Character;
 
 import com.badlogic.gdx.math.Vector2;
-import de.tum.cit.ase.maze.Screens.GameScreen;
 
 
 /**
@@ -24,9 +23,8 @@ public enum Direction {
      *
      * @param x           The initial x-coordinate of the character.
      * @param y           The initial y-coordinate of the character.
-     * @param gameScreen  The `GameScreen` instance where the character is used.
      */
-    public Character(float x, float y, GameScreen gameScreen) {
+    public Character(float x, float y) {
         this.position = new Vector2(x, y);
         this.currentDirection = Direction.DOWN; // Default direction
     }
@@ -1,12 +1,11 @@
 package de.tum.cit.ase.maze.Character;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import de.tum.cit.ase.maze.Maze.GameAtlas;
 
 /**
  * The `CharacterAnimation` class handles the animation of the game character.
@@ -20,45 +19,41 @@ public class CharacterAnimation {
 
     /**
      * Creates a new character animation with default values.
+     *
+     * @param atlas The atlas holding the frames of the character sheet.
      */
-    public CharacterAnimation() {
+    public CharacterAnimation(GameAtlas atlas) {
         position = new Vector2();
         stateTime = 0f;
-        loadCharacterAnimation();
+        loadCharacterAnimation(atlas);
     }
 
     /**
-     * Loads the character animations from the specified texture sheet.
+     * Loads the character animations from the frames of the character sheet in the game atlas.
      * Each direction animation is assumed to have 4 frames.
      */
-    private void loadCharacterAnimation() {
-        Texture walkSheet = new Texture(Gdx.files.internal("character.png"));
-
-        int frameWidth = 16;
-        int frameHeight = 32;
+    private void loadCharacterAnimation(GameAtlas atlas) {
         int animationFrames = 4;
 
         // Corrected mapping: down, right, left, up.
-        downAnimation = createAnimation(walkSheet, 0 * frameHeight, frameWidth, frameHeight, animationFrames);
-        rightAnimation = createAnimation(walkSheet, 1 * frameHeight, frameWidth, frameHeight, animationFrames);
-        upAnimation = createAnimation(walkSheet, 2 * frameHeight, frameWidth, frameHeight, animationFrames);
-        leftAnimation = createAnimation(walkSheet, 3 * frameHeight, frameWidth, frameHeight, animationFrames);
+        downAnimation = createAnimation(atlas, 0, animationFrames);
+        rightAnimation = createAnimation(atlas, 1, animationFrames);
+        upAnimation = createAnimation(atlas, 2, animationFrames);
+        leftAnimation = createAnimation(atlas, 3, animationFrames);
     }
 
     /**
-     * Creates an animation from the given texture sheet.
+     * Creates an animation from one row of the character sheet.
      *
-     * @param sheet       The texture sheet containing animation frames.
-     * @param startY      The starting Y-coordinate of animation frames in the sheet.
-     * @param frameWidth  The width of each animation frame.
-     * @param frameHeight The height of each animation frame.
-     * @param frameCount  The number of frames in the animation.
+     * @param atlas      The atlas holding the frames of the character sheet.
+     * @param row        The row of animation frames in the sheet.
+     * @param frameCount The number of frames in the animation.
      * @return The created animation.
      */
-    private Animation<TextureRegion> createAnimation(Texture sheet, int startY, int frameWidth, int frameHeight, int frameCount) {
+    private Animation<TextureRegion> createAnimation(GameAtlas atlas, int row, int frameCount) {
         Array<TextureRegion> frames = new Array<>(TextureRegion.class);
         for (int i = 0; i < frameCount; i++) {
-            frames.add(new TextureRegion(sheet, i * frameWidth, startY, frameWidth, frameHeight));
+            frames.add(atlas.getCharacterFrame(row, i));
         }
         return new Animation<>(0.1f, frames, Animation.PlayMode.LOOP);
     }
@@ -0,0 +1,73 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The `BinaryMapLoader` class loads maze maps stored in the compact binary ".maze" format.
+ * The file is memory-mapped, so loading costs little more than paging the cell bytes in.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int   magic      'M' 'A' 'Z' 'E'
+ *   byte  version    currently 1
+ *   int   width
+ *   int   height
+ *   byte  typeCount  number of entries in the cell-type table
+ *   int[] typeTable  the cell type stored under each byte code
+ *   byte[] cells     width * height codes, row by row starting at y = 0
+ * </pre>
+ */
+public class BinaryMapLoader {
+
+    public static final String EXTENSION = "maze";
+    public static final int MAGIC = ('M' << 24) | ('A' << 16) | ('Z' << 8) | 'E';
+    public static final byte VERSION = 1;
+
+    /**
+     * Loads a binary maze map from the specified file.
+     *
+     * @param fileName The name of the ".maze" file.
+     * @return A grid representing the loaded maze.
+     * @throws IOException If the file cannot be read or is not a valid binary map.
+     */
+    public static MazeGrid load(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 14 || buffer.getInt() != MAGIC) {
+                throw new IOException(fileName + " is not a binary maze map");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary map version " + version + " in " + fileName);
+            }
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int typeCount = buffer.get() & 0xFF;
+            if (width <= 0 || height <= 0 || buffer.remaining() != typeCount * 4 + (long) width * height) {
+                throw new IOException("Corrupt binary map header in " + fileName);
+            }
+
+            byte[] typeTable = new byte[256];
+            for (int i = 0; i < typeCount; i++) {
+                typeTable[i] = (byte) buffer.getInt();
+            }
+
+            // Copy the codes in one bulk read, then translate them to cell types in place and index them
+            byte[] cells = new byte[width * height];
+            buffer.get(cells);
+            LevelIndex index = new LevelIndex();
+            for (int y = 0, i = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    cells[i] = typeTable[cells[i] & 0xFF];
+                    index.add(x, y, cells[i]);
+                }
+            }
+            return new MazeGrid(width, height, cells, index);
+        }
+    }
+}
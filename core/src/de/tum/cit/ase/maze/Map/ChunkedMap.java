@@ -0,0 +1,318 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The `ChunkedMap` class is a `MazeMap` that keeps its cells in an indexed ".mazechunk" file and only
+ * holds the chunks around the camera in memory. Chunks are read on demand, chunks ahead of the player are
+ * prefetched in the background, and a bounded LRU cache evicts chunks that have not been used for a while.
+ * Opening a map only reads the header, so it takes the same time whatever the map size.
+ * The header also holds the `LevelIndex` of the map's special cells.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int    magic       'M' 'Z' 'C' 'K'
+ *   byte   version     currently 2
+ *   int    width
+ *   int    height
+ *   int    chunkSize   chunks are chunkSize x chunkSize cells
+ *   for each cell type from LevelIndex.ENTRY to LevelIndex.KEY:
+ *     int   count
+ *     int[] cells      x, y of every cell of that type
+ *   long[] index       file offset of every chunk, row by row
+ *   byte[] chunks      chunkSize * chunkSize cell types per chunk, row by row; identical chunks are stored once
+ * </pre>
+ */
+public class ChunkedMap implements MazeMap {
+
+    public static final String EXTENSION = "mazechunk";
+    public static final int MAGIC = ('M' << 24) | ('Z' << 16) | ('C' << 8) | 'K';
+    public static final byte VERSION = 2;
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private static final int DEFAULT_CACHE_CHUNKS = 256;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final int width;
+    private final int height;
+    private final int chunkSize;
+    private final int chunksX;
+    private final int chunksY;
+    private final LevelIndex levelIndex = new LevelIndex();
+    private final DirtyRegions dirtyRegions = new DirtyRegions();
+
+    // Recently used chunks, evicted in least-recently-used order
+    private final LinkedHashMap<Integer, byte[]> cache;
+    // Chunks changed at runtime; never evicted so the changes are not lost
+    private final Map<Integer, byte[]> modified = new HashMap<>();
+    private final Set<Integer> pendingPrefetches = ConcurrentHashMap.newKeySet();
+    private final ExecutorService prefetcher;
+
+    // The last chunk used by getCell, so neighbouring lookups skip the cache
+    private int lastChunkIndex = -1;
+    private byte[] lastChunk;
+
+    /**
+     * Opens a chunked map file with the default cache size.
+     *
+     * @param fileName The name of the ".mazechunk" file.
+     * @throws IOException If the file cannot be read or is not a chunked map.
+     */
+    public ChunkedMap(String fileName) throws IOException {
+        this(fileName, DEFAULT_CACHE_CHUNKS);
+    }
+
+    /**
+     * Opens a chunked map file.
+     *
+     * @param fileName    The name of the ".mazechunk" file.
+     * @param cacheChunks The maximum number of chunks kept in memory.
+     * @throws IOException If the file cannot be read or is not a chunked map.
+     */
+    public ChunkedMap(String fileName, int cacheChunks) throws IOException {
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(17);
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(fileName + " is not a chunked maze map");
+            }
+            byte version = header.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported chunked map version " + version + " in " + fileName);
+            }
+            width = header.getInt();
+            height = header.getInt();
+            chunkSize = header.getInt();
+            if (width <= 0 || height <= 0 || chunkSize <= 0) {
+                throw new IOException("Corrupt chunked map header in " + fileName);
+            }
+
+            long position = header.capacity();
+            ByteBuffer countBuffer = ByteBuffer.allocate(4);
+            for (int type = LevelIndex.ENTRY; type <= LevelIndex.KEY; type++) {
+                countBuffer.clear();
+                readFully(countBuffer, position);
+                int count = countBuffer.getInt(0);
+                if (count < 0) {
+                    throw new IOException("Corrupt chunked map header in " + fileName);
+                }
+                ByteBuffer cellBuffer = ByteBuffer.allocate(count * 8);
+                readFully(cellBuffer, position + 4);
+                for (int i = 0; i < count; i++) {
+                    levelIndex.add(cellBuffer.getInt(i * 8), cellBuffer.getInt(i * 8 + 4), type);
+                }
+                position += 4 + count * 8L;
+            }
+
+            chunksX = (width + chunkSize - 1) / chunkSize;
+            chunksY = (height + chunkSize - 1) / chunkSize;
+            index = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) chunksX * chunksY * 8);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > cacheChunks;
+            }
+        };
+        prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunk-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getCell(int x, int y) {
+        checkBounds(x, y);
+        return getChunk(x / chunkSize, y / chunkSize)[(y % chunkSize) * chunkSize + x % chunkSize];
+    }
+
+    @Override
+    public void setCell(int x, int y, int type) {
+        checkBounds(x, y);
+        int chunkIndex = (y / chunkSize) * chunksX + x / chunkSize;
+        byte[] chunk;
+        synchronized (this) {
+            levelIndex.onCellChanged(x, y, getCell(x, y), (byte) type);
+            chunk = modified.get(chunkIndex);
+            if (chunk == null) {
+                chunk = getChunk(x / chunkSize, y / chunkSize);
+                modified.put(chunkIndex, chunk);
+                cache.remove(chunkIndex);
+            }
+        }
+        chunk[(y % chunkSize) * chunkSize + x % chunkSize] = (byte) type;
+        dirtyRegions.add(x, y);
+    }
+
+    /**
+     * Loads the chunks covering the given view and prefetches the ring of chunks ahead of it
+     * in the direction of travel. Called once per frame with the camera's view in cells.
+     *
+     * @param minX       The leftmost visible column.
+     * @param minY       The lowest visible row.
+     * @param maxX       The rightmost visible column.
+     * @param maxY       The highest visible row.
+     * @param directionX The horizontal direction of travel (-1, 0 or 1).
+     * @param directionY The vertical direction of travel (-1, 0 or 1).
+     */
+    public void update(int minX, int minY, int maxX, int maxY, int directionX, int directionY) {
+        int firstChunkX = Math.max(0, minX / chunkSize);
+        int firstChunkY = Math.max(0, minY / chunkSize);
+        int lastChunkX = Math.min(chunksX - 1, maxX / chunkSize);
+        int lastChunkY = Math.min(chunksY - 1, maxY / chunkSize);
+
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                getChunk(chunkX, chunkY);
+            }
+        }
+
+        if (directionX != 0) {
+            int chunkX = directionX > 0 ? lastChunkX + 1 : firstChunkX - 1;
+            for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+                prefetch(chunkX, chunkY);
+            }
+        }
+        if (directionY != 0) {
+            int chunkY = directionY > 0 ? lastChunkY + 1 : firstChunkY - 1;
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                prefetch(chunkX, chunkY);
+            }
+        }
+    }
+
+    @Override
+    public LevelIndex getIndex() {
+        return levelIndex;
+    }
+
+    @Override
+    public DirtyRegions getDirtyRegions() {
+        return dirtyRegions;
+    }
+
+    /**
+     * @return The number of chunks currently held in memory.
+     */
+    public synchronized int getLoadedChunkCount() {
+        return cache.size() + modified.size();
+    }
+
+    /**
+     * Stops the prefetcher and closes the map file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        prefetcher.shutdownNow();
+        channel.close();
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside the " + width + "x" + height + " map");
+        }
+    }
+
+    /**
+     * Retrieves a chunk, reading it from the file if it is not cached.
+     */
+    private byte[] getChunk(int chunkX, int chunkY) {
+        int chunkIndex = chunkY * chunksX + chunkX;
+        synchronized (this) {
+            if (chunkIndex == lastChunkIndex) {
+                return lastChunk;
+            }
+            byte[] chunk = modified.get(chunkIndex);
+            if (chunk == null) {
+                chunk = cache.get(chunkIndex);
+            }
+            if (chunk == null) {
+                chunk = readChunk(chunkIndex);
+                cache.put(chunkIndex, chunk);
+            }
+            lastChunkIndex = chunkIndex;
+            lastChunk = chunk;
+            return chunk;
+        }
+    }
+
+    private void prefetch(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY) {
+            return;
+        }
+        int chunkIndex = chunkY * chunksX + chunkX;
+        synchronized (this) {
+            if (modified.containsKey(chunkIndex) || cache.containsKey(chunkIndex)) {
+                return;
+            }
+        }
+        if (!pendingPrefetches.add(chunkIndex)) {
+            return;
+        }
+        prefetcher.execute(() -> {
+            try {
+                byte[] chunk = readChunk(chunkIndex);
+                synchronized (this) {
+                    if (!modified.containsKey(chunkIndex)) {
+                        cache.putIfAbsent(chunkIndex, chunk);
+                    }
+                }
+            } finally {
+                pendingPrefetches.remove(chunkIndex);
+            }
+        });
+    }
+
+    private byte[] readChunk(int chunkIndex) {
+        byte[] chunk = new byte[chunkSize * chunkSize];
+        try {
+            readFully(ByteBuffer.wrap(chunk), index.getLong(chunkIndex * 8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read chunk " + chunkIndex, e);
+        }
+        return chunk;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of chunked map");
+            }
+            position += read;
+        }
+    }
+}
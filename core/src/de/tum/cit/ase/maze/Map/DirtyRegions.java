@@ -0,0 +1,114 @@
+package de.tum.cit.ase.maze.Map;
+
+/**
+ * The `DirtyRegions` class collects the rectangles of cells that changed since the renderer last caught up,
+ * so caches built from the cells only rebuild those parts.
+ * A changed cell next to or inside a recorded rectangle grows that rectangle, so a burst of nearby changes
+ * stays one rectangle. The number of rectangles is bounded; beyond that, new changes are merged into the last one.
+ */
+public class DirtyRegions {
+
+    private static final int MAX_REGIONS = 64;
+
+    // minX, minY, maxX, maxY of every rectangle, inclusive
+    private final int[] bounds = new int[MAX_REGIONS * 4];
+    private int count;
+
+    /**
+     * Records a changed cell.
+     *
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     */
+    public void add(int x, int y) {
+        add(x, y, x, y);
+    }
+
+    /**
+     * Records a rectangle of changed cells.
+     *
+     * @param minX The leftmost column.
+     * @param minY The lowest row.
+     * @param maxX The rightmost column.
+     * @param maxY The highest row.
+     */
+    public void add(int minX, int minY, int maxX, int maxY) {
+        for (int i = 0; i < count * 4; i += 4) {
+            // Grow a rectangle that overlaps or touches the new one
+            if (minX <= bounds[i + 2] + 1 && maxX >= bounds[i] - 1 && minY <= bounds[i + 3] + 1 && maxY >= bounds[i + 1] - 1) {
+                union(i, minX, minY, maxX, maxY);
+                return;
+            }
+        }
+        if (count == MAX_REGIONS) {
+            union((count - 1) * 4, minX, minY, maxX, maxY);
+            return;
+        }
+        int i = count * 4;
+        bounds[i] = minX;
+        bounds[i + 1] = minY;
+        bounds[i + 2] = maxX;
+        bounds[i + 3] = maxY;
+        count++;
+    }
+
+    /**
+     * @return True if no cell changed since the last `clear`.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return The number of recorded rectangles.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param i Which rectangle, from 0 to `getCount() - 1`.
+     * @return The leftmost column of the rectangle.
+     */
+    public int getMinX(int i) {
+        return bounds[i * 4];
+    }
+
+    /**
+     * @param i Which rectangle, from 0 to `getCount() - 1`.
+     * @return The lowest row of the rectangle.
+     */
+    public int getMinY(int i) {
+        return bounds[i * 4 + 1];
+    }
+
+    /**
+     * @param i Which rectangle, from 0 to `getCount() - 1`.
+     * @return The rightmost column of the rectangle.
+     */
+    public int getMaxX(int i) {
+        return bounds[i * 4 + 2];
+    }
+
+    /**
+     * @param i Which rectangle, from 0 to `getCount() - 1`.
+     * @return The highest row of the rectangle.
+     */
+    public int getMaxY(int i) {
+        return bounds[i * 4 + 3];
+    }
+
+    /**
+     * Forgets all recorded rectangles, once every cache has been updated.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    private void union(int i, int minX, int minY, int maxX, int maxY) {
+        bounds[i] = Math.min(bounds[i], minX);
+        bounds[i + 1] = Math.min(bounds[i + 1], minY);
+        bounds[i + 2] = Math.max(bounds[i + 2], maxX);
+        bounds[i + 3] = Math.max(bounds[i + 3], maxY);
+    }
+}
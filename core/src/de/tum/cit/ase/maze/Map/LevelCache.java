@@ -0,0 +1,196 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The `LevelCache` class keeps recently parsed levels in memory, so restarting a level or moving to a
+ * prefetched one does not read and parse the file again.
+ * Entries are keyed by path, modification time and size, so an edited file is parsed again.
+ * The cache holds at most a fixed number of bytes and evicts the least recently used levels first.
+ * Every caller gets its own copy of the level, since the game changes cells while it is played.
+ */
+public class LevelCache {
+
+    private final long byteBudget;
+    private final LinkedHashMap<Key, MazeGrid> levels = new LinkedHashMap<>(16, 0.75f, true);
+    // Levels that are being parsed right now, so a prefetch and a get never parse the same file twice
+    private final Map<Key, CompletableFuture<MazeGrid>> loading = new HashMap<>();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a level cache.
+     *
+     * @param byteBudget The maximum number of bytes the cached levels may take up.
+     */
+    public LevelCache(long byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Retrieves a level, parsing it only if it is not cached yet.
+     * Chunked maps are not cached, since they are only opened and never parsed as a whole.
+     *
+     * @param mapName The name of the file containing the maze.
+     * @return A fresh copy of the level, or null if it could not be loaded.
+     */
+    public MazeMap get(String mapName) {
+        if (mapName.toLowerCase().endsWith("." + ChunkedMap.EXTENSION)) {
+            return MapLoader.openMap(mapName);
+        }
+
+        Key key = Key.of(mapName);
+        CompletableFuture<MazeGrid> future;
+        boolean owner = false;
+        synchronized (this) {
+            MazeGrid cached = levels.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.copy();
+            }
+            misses++;
+            future = loading.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+                owner = true;
+            }
+        }
+
+        MazeGrid level = owner ? load(key, future) : future.join();
+        return level != null ? level.copy() : null;
+    }
+
+    /**
+     * Parses a level in the background so a later `get` finds it in the cache.
+     *
+     * @param mapName  The name of the file containing the maze.
+     * @param executor The executor to parse the level on.
+     */
+    public void prefetch(String mapName, Executor executor) {
+        if (mapName.toLowerCase().endsWith("." + ChunkedMap.EXTENSION) || !new File(mapName).isFile()) {
+            return;
+        }
+        Key key = Key.of(mapName);
+        CompletableFuture<MazeGrid> future;
+        synchronized (this) {
+            if (levels.containsKey(key) || loading.containsKey(key)) {
+                return;
+            }
+            future = new CompletableFuture<>();
+            loading.put(key, future);
+        }
+        executor.execute(() -> load(key, future));
+    }
+
+    /**
+     * @return The number of requests that were answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of requests that were not answered from the cache.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of bytes taken up by the cached levels.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LevelCache[levels=" + levels.size() + ", bytes=" + usedBytes + "/" + byteBudget
+                + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    private MazeGrid load(Key key, CompletableFuture<MazeGrid> future) {
+        MazeGrid level = null;
+        try {
+            level = MapLoader.loadMap(key.path);
+        } finally {
+            synchronized (this) {
+                loading.remove(key);
+                if (level != null) {
+                    put(key, level);
+                }
+            }
+            future.complete(level);
+        }
+        return level;
+    }
+
+    private void put(Key key, MazeGrid level) {
+        long size = sizeOf(level);
+        if (size > byteBudget) {
+            return; // Larger than the whole cache, so keeping it would only evict everything else
+        }
+        MazeGrid previous = levels.put(key, level);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+        }
+        usedBytes += size;
+
+        Iterator<Map.Entry<Key, MazeGrid>> iterator = levels.entrySet().iterator();
+        while (usedBytes > byteBudget && iterator.hasNext()) {
+            Map.Entry<Key, MazeGrid> eldest = iterator.next();
+            usedBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Estimates the heap size of a level: one byte per cell plus the object and array headers.
+     */
+    private static long sizeOf(MazeGrid level) {
+        return 48 + (long) level.getWidth() * level.getHeight();
+    }
+
+    /**
+     * Identifies one version of a level file.
+     */
+    private static final class Key {
+        private final String path;
+        private final long lastModified;
+        private final long size;
+
+        private Key(String path, long lastModified, long size) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        static Key of(String mapName) {
+            File file = new File(mapName);
+            return new Key(file.getAbsolutePath(), file.lastModified(), file.length());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return path.equals(key.path) && lastModified == key.lastModified && size == key.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, size);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.util.Arrays;
+
+/**
+ * The `LevelIndex` class records where the special cells of a maze are: the entry, exits, traps,
+ * enemy spawns and keys. Loaders fill it in the same pass that fills the cells, and maps keep it up to date
+ * when cells change, so the game never has to scan the whole maze to find them.
+ * Positions are kept per cell type as consecutive x, y pairs in a plain int array.
+ */
+public class LevelIndex {
+
+    public static final int ENTRY = 1;
+    public static final int EXIT = 2;
+    public static final int TRAP = 3;
+    public static final int ENEMY = 4;
+    public static final int KEY = 5;
+
+    // positions[type] holds x, y pairs of every cell of that type; counts[type] is the number of pairs
+    private final int[][] positions = new int[KEY + 1][];
+    private final int[] counts = new int[KEY + 1];
+
+    /**
+     * Creates an empty index.
+     */
+    public LevelIndex() {
+        for (int type = ENTRY; type <= KEY; type++) {
+            positions[type] = new int[8];
+        }
+    }
+
+    /**
+     * Updates the index after a cell changed its type.
+     *
+     * @param x       The column of the cell.
+     * @param y       The row of the cell.
+     * @param oldType The type the cell had.
+     * @param newType The type the cell has now.
+     */
+    public void onCellChanged(int x, int y, int oldType, int newType) {
+        if (oldType != newType) {
+            remove(x, y, oldType);
+            add(x, y, newType);
+        }
+    }
+
+    /**
+     * Records a cell. Cell types without special meaning are ignored.
+     *
+     * @param x    The column of the cell.
+     * @param y    The row of the cell.
+     * @param type The type of the cell.
+     */
+    public void add(int x, int y, int type) {
+        if (!isIndexed(type)) {
+            return;
+        }
+        int[] typePositions = positions[type];
+        int length = counts[type] * 2;
+        if (length == typePositions.length) {
+            typePositions = positions[type] = Arrays.copyOf(typePositions, length * 2);
+        }
+        typePositions[length] = x;
+        typePositions[length + 1] = y;
+        counts[type]++;
+    }
+
+    /**
+     * Forgets a cell, moving the last cell of the same type into its place.
+     *
+     * @param x    The column of the cell.
+     * @param y    The row of the cell.
+     * @param type The type the cell was recorded with.
+     */
+    public void remove(int x, int y, int type) {
+        if (!isIndexed(type)) {
+            return;
+        }
+        int[] typePositions = positions[type];
+        int last = (counts[type] - 1) * 2;
+        for (int i = 0; i <= last; i += 2) {
+            if (typePositions[i] == x && typePositions[i + 1] == y) {
+                typePositions[i] = typePositions[last];
+                typePositions[i + 1] = typePositions[last + 1];
+                counts[type]--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param type A cell type from `ENTRY` to `KEY`.
+     * @return The number of cells of that type.
+     */
+    public int getCount(int type) {
+        return isIndexed(type) ? counts[type] : 0;
+    }
+
+    /**
+     * @param type A cell type from `ENTRY` to `KEY`.
+     * @param i    Which of the cells of that type, from 0 to `getCount(type) - 1`.
+     * @return The column of the cell.
+     */
+    public int getX(int type, int i) {
+        return positions[type][i * 2];
+    }
+
+    /**
+     * @param type A cell type from `ENTRY` to `KEY`.
+     * @param i    Which of the cells of that type, from 0 to `getCount(type) - 1`.
+     * @return The row of the cell.
+     */
+    public int getY(int type, int i) {
+        return positions[type][i * 2 + 1];
+    }
+
+    /**
+     * @return True if the maze has an entry.
+     */
+    public boolean hasEntry() {
+        return counts[ENTRY] > 0;
+    }
+
+    /**
+     * @return The column of the entry. With several entries, the one in the lowest row (then leftmost) is used.
+     */
+    public int getEntryX() {
+        return positions[ENTRY][firstEntry()];
+    }
+
+    /**
+     * @return The row of the entry. With several entries, the one in the lowest row (then leftmost) is used.
+     */
+    public int getEntryY() {
+        return positions[ENTRY][firstEntry() + 1];
+    }
+
+    /**
+     * @return An independent copy of this index.
+     */
+    public LevelIndex copy() {
+        LevelIndex copy = new LevelIndex();
+        for (int type = ENTRY; type <= KEY; type++) {
+            copy.positions[type] = positions[type].clone();
+            copy.counts[type] = counts[type];
+        }
+        return copy;
+    }
+
+    private int firstEntry() {
+        if (counts[ENTRY] == 0) {
+            throw new IllegalStateException("The maze has no entry");
+        }
+        int[] entries = positions[ENTRY];
+        int first = 0;
+        for (int i = 2; i < counts[ENTRY] * 2; i += 2) {
+            if (entries[i + 1] < entries[first + 1] || (entries[i + 1] == entries[first + 1] && entries[i] < entries[first])) {
+                first = i;
+            }
+        }
+        return first;
+    }
+
+    private static boolean isIndexed(int type) {
+        return type >= ENTRY && type <= KEY;
+    }
+}
@@ -0,0 +1,167 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The `MapConverter` class turns maze maps from ".properties" files into the binary ".maze" format
+ * read by `BinaryMapLoader`, or into the chunked ".mazechunk" format read by `ChunkedMap`.
+ * It can be run on its own, e.g. to convert the shipped levels:
+ * <pre>
+ *   MapConverter [--chunked] maps/level-1.properties maps/level-2.properties ...
+ * </pre>
+ * Each input is written next to itself with the ".maze" (or ".mazechunk") extension.
+ */
+public class MapConverter {
+
+    /**
+     * Converts every properties file given on the command line.
+     *
+     * @param args Paths of the ".properties" files to convert.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean chunked = args.length > 0 && args[0].equals("--chunked");
+        if (args.length == (chunked ? 1 : 0)) {
+            System.err.println("Usage: MapConverter [--chunked] <map.properties>...");
+            return;
+        }
+        for (int i = chunked ? 1 : 0; i < args.length; i++) {
+            String input = args[i];
+            if (chunked) {
+                String output = replaceExtension(input, ChunkedMap.EXTENSION);
+                writeChunked(StreamingMapParser.parse(input), output, ChunkedMap.DEFAULT_CHUNK_SIZE);
+                System.out.println("Converted " + input + " -> " + output);
+            } else {
+                String output = replaceExtension(input, BinaryMapLoader.EXTENSION);
+                convert(input, output);
+                System.out.println("Converted " + input + " -> " + output);
+            }
+        }
+    }
+
+    /**
+     * Converts one properties map into the binary format.
+     *
+     * @param propertiesFile The ".properties" file to read.
+     * @param binaryFile     The ".maze" file to write.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void convert(String propertiesFile, String binaryFile) throws IOException {
+        writeBinary(StreamingMapParser.parse(propertiesFile), binaryFile);
+    }
+
+    /**
+     * Writes a maze into the binary format, building the cell-type table from the types that occur in it.
+     *
+     * @param maze       The grid representing the maze.
+     * @param binaryFile The ".maze" file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeBinary(MazeGrid maze, String binaryFile) throws IOException {
+        int height = maze.getHeight();
+        int width = maze.getWidth();
+
+        // Assign byte codes to cell types in order of first appearance
+        int[] typeTable = new int[256];
+        int typeCount = 0;
+        byte[] cells = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int type = maze.getCell(x, y);
+                int code = 0;
+                while (code < typeCount && typeTable[code] != type) {
+                    code++;
+                }
+                if (code == typeCount) {
+                    if (typeCount == typeTable.length) {
+                        throw new IOException("Too many different cell types for " + binaryFile);
+                    }
+                    typeTable[typeCount++] = type;
+                }
+                cells[y * width + x] = (byte) code;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(binaryFile)))) {
+            out.writeInt(BinaryMapLoader.MAGIC);
+            out.writeByte(BinaryMapLoader.VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeByte(typeCount);
+            for (int i = 0; i < typeCount; i++) {
+                out.writeInt(typeTable[i]);
+            }
+            out.write(cells);
+        }
+    }
+
+    /**
+     * Writes a maze into the chunked format read by `ChunkedMap`.
+     * The maze's `LevelIndex` is stored in the header, and identical chunks are stored only once.
+     *
+     * @param maze        The grid representing the maze.
+     * @param chunkedFile The ".mazechunk" file to write.
+     * @param chunkSize   The width and height of a chunk in cells.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeChunked(MazeGrid maze, String chunkedFile, int chunkSize) throws IOException {
+        int height = maze.getHeight();
+        int width = maze.getWidth();
+        int chunksX = (width + chunkSize - 1) / chunkSize;
+        int chunksY = (height + chunkSize - 1) / chunkSize;
+
+        // Cut the maze into chunks, padding the ones on the right and top border with the default cell
+        Map<ByteBuffer, Integer> uniqueChunks = new LinkedHashMap<>();
+        int[] chunkSlots = new int[chunksX * chunksY];
+        for (int chunkY = 0; chunkY < chunksY; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                byte[] chunk = new byte[chunkSize * chunkSize];
+                Arrays.fill(chunk, (byte) 6);
+                int chunkWidth = Math.min(chunkSize, width - chunkX * chunkSize);
+                for (int y = 0; y < chunkSize && chunkY * chunkSize + y < height; y++) {
+                    System.arraycopy(maze.getCells(), maze.index(chunkX * chunkSize, chunkY * chunkSize + y),
+                            chunk, y * chunkSize, chunkWidth);
+                }
+                Integer slot = uniqueChunks.putIfAbsent(ByteBuffer.wrap(chunk), uniqueChunks.size());
+                chunkSlots[chunkY * chunksX + chunkX] = slot != null ? slot : uniqueChunks.size() - 1;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(chunkedFile)))) {
+            out.writeInt(ChunkedMap.MAGIC);
+            out.writeByte(ChunkedMap.VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(chunkSize);
+            LevelIndex index = maze.getIndex();
+            for (int type = LevelIndex.ENTRY; type <= LevelIndex.KEY; type++) {
+                out.writeInt(index.getCount(type));
+                for (int i = 0; i < index.getCount(type); i++) {
+                    out.writeInt(index.getX(type, i));
+                    out.writeInt(index.getY(type, i));
+                }
+            }
+            long dataOffset = out.size() + chunkSlots.length * 8L;
+            for (int slot : chunkSlots) {
+                out.writeLong(dataOffset + (long) slot * chunkSize * chunkSize);
+            }
+            for (ByteBuffer chunk : uniqueChunks.keySet()) {
+                out.write(chunk.array());
+            }
+        }
+    }
+
+    private static String replaceExtension(String fileName, String extension) {
+        int dot = fileName.lastIndexOf('.');
+        int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        String base = dot > separator ? fileName.substring(0, dot) : fileName;
+        return base + "." + extension;
+    }
+}
@@ -1,31 +1,32 @@
 package de.tum.cit.ase.maze.Map;
 
+import java.io.IOException;
+
 /**
- * The `MapDataHolder` class is a simple data holder for storing and displaying the selected maze map.
- * It provides methods to set and retrieve the selected map, as well as display its content.
+ * The `MapDataHolder` class is a simple data holder for storing the selected maze map.
+ * It provides methods to set and retrieve the selected map.
  */
 public class MapDataHolder {
-    private static int[][] selectedMap;
+    private static MazeMap selectedMap;
 
-    public static int[][] getSelectedMap() {
+    public static MazeMap getSelectedMap() {
         return selectedMap;
     }
 
-    public static void setSelectedMap(int[][] map) {
-        selectedMap = map;
-    }
-
-    public static void displaySelectedMap() {
-        if (selectedMap != null) {
-            for (int[] row : selectedMap) {
-                for (int cell : row) {
-                    System.out.print(cell + " ");
-                }
-                System.out.println();
+    /**
+     * Sets the selected map and closes the previously selected one, which is not played anymore.
+     *
+     * @param map The newly selected map, or null to only close the selected one.
+     */
+    public static void setSelectedMap(MazeMap map) {
+        if (selectedMap != null && selectedMap != map) {
+            try {
+                selectedMap.close();
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } else {
-            System.out.println("No map selected.");
         }
+        selectedMap = map;
     }
 
 }
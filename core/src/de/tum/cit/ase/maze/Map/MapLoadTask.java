@@ -0,0 +1,97 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+
+/**
+ * The `MapLoadTask` class loads a maze map off the render thread.
+ * It is meant to be submitted to an executor; the resulting future can be cancelled, which interrupts
+ * the parser, and the load progress can be polled from any thread while it runs.
+ */
+public class MapLoadTask implements Callable<MazeMap> {
+
+    private final String mapName;
+    private volatile float progress = 0f;
+
+    /**
+     * Creates a task loading the given map file.
+     *
+     * @param mapName The name of the file containing the maze.
+     */
+    public MapLoadTask(String mapName) {
+        this.mapName = mapName;
+    }
+
+    /**
+     * Loads the map, picking the loader by file extension like `MapLoader.openMap`.
+     *
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read, or the task was cancelled while reading it.
+     */
+    @Override
+    public MazeMap call() throws IOException {
+        String lowerCaseName = mapName.toLowerCase();
+        MazeMap map;
+        if (lowerCaseName.endsWith("." + ChunkedMap.EXTENSION)) {
+            map = new ChunkedMap(mapName);
+        } else if (lowerCaseName.endsWith("." + BinaryMapLoader.EXTENSION)) {
+            map = BinaryMapLoader.load(mapName);
+        } else {
+            try (InputStream inputStream = new ProgressInputStream(new FileInputStream(mapName))) {
+                map = StreamingMapParser.parse(inputStream);
+            }
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            map.close();
+            throw new InterruptedIOException("Loading " + mapName + " was cancelled");
+        }
+        progress = 1f;
+        return map;
+    }
+
+    /**
+     * @return The name of the file being loaded.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return How much of the file has been read so far, from 0 to 1.
+     */
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * Counts the bytes read to report progress, and stops reading once the loading thread is interrupted.
+     */
+    private class ProgressInputStream extends FilterInputStream {
+
+        private final long length;
+        private long bytesRead;
+
+        ProgressInputStream(FileInputStream inputStream) throws IOException {
+            super(inputStream);
+            this.length = Math.max(1, inputStream.getChannel().size());
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Loading " + mapName + " was cancelled");
+            }
+            int read = super.read(buffer, offset, count);
+            if (read > 0) {
+                bytesRead += read;
+                progress = Math.min(0.99f, (float) bytesRead / length);
+            }
+            return read;
+        }
+    }
+}
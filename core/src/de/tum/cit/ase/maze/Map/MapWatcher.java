@@ -0,0 +1,219 @@
+package de.tum.cit.ase.maze.Map;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `MapWatcher` class reloads the map being played when its file is edited, without restarting the level.
+ * A background thread watches the map's directory. When the file changes, only that file is parsed again
+ * and compared with the previous version of the file, and just the cells that differ are written into the
+ * live map on the render thread. The player, the enemies and cells changed by the game itself are kept.
+ * Chunked maps are not watched, since they are never parsed as a whole.
+ */
+public class MapWatcher implements Closeable {
+
+    // Editors often save a file in several writes, so events are collected for a moment before reloading
+    private static final long SETTLE_MILLIS = 30;
+
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // Guarded by this; generation changes with every watch call so stale patches are dropped
+    private Path watchedFile;
+    private WatchKey watchKey;
+    private MazeGrid fileVersion;
+    private int generation;
+
+    /**
+     * Creates a watcher and starts its background thread. Nothing is watched until `watch` is called.
+     *
+     * @throws IOException If the file system cannot be watched.
+     */
+    public MapWatcher() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        thread = new Thread(this::run, "map-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts watching the file of the map being played, replacing the previously watched map.
+     *
+     * @param mapName The name of the map file.
+     * @param map     The live map, freshly loaded from the file. Changes to the file are applied to it.
+     */
+    public synchronized void watch(String mapName, MazeMap map) {
+        generation++;
+        watchedFile = null;
+        fileVersion = null;
+        if (mapName == null || !(map instanceof MazeGrid)) {
+            cancelWatchKey();
+            return;
+        }
+
+        Path file = Path.of(mapName).toAbsolutePath().normalize();
+        Path directory = file.getParent();
+        if (watchKey == null || !watchKey.watchable().equals(directory)) {
+            cancelWatchKey();
+            try {
+                watchKey = directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            } catch (IOException e) {
+                Gdx.app.error("MapWatcher", "Could not watch " + directory, e);
+                return;
+            }
+        }
+        watchedFile = file;
+        fileVersion = ((MazeGrid) map).copy();
+    }
+
+    /**
+     * Stops the background thread.
+     *
+     * @throws IOException If the watch service cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+
+    private void cancelWatchKey() {
+        if (watchKey != null) {
+            watchKey.cancel();
+            watchKey = null;
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isWatchedFileChanged(key);
+                if (changed) {
+                    // Swallow the rest of this save before reading the file
+                    Thread.sleep(SETTLE_MILLIS);
+                    while ((key = watchService.poll(0, TimeUnit.MILLISECONDS)) != null) {
+                        isWatchedFileChanged(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher was closed
+        }
+    }
+
+    private boolean isWatchedFileChanged(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+            } else {
+                Path file = directory.resolve((Path) event.context());
+                synchronized (this) {
+                    changed |= file.equals(watchedFile);
+                }
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Parses the watched file again and sends the cells that changed since its previous version to the render thread.
+     */
+    private void reload() {
+        Path file;
+        MazeGrid previous;
+        int reloadGeneration;
+        synchronized (this) {
+            file = watchedFile;
+            previous = fileVersion;
+            reloadGeneration = generation;
+        }
+        if (file == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        MazeGrid edited;
+        try {
+            edited = MapLoader.loadMap(file.toString());
+        } catch (RuntimeException e) {
+            Gdx.app.error("MapWatcher", "Could not parse " + file.getFileName(), e);
+            return;
+        }
+        if (edited == null) {
+            return;
+        }
+        if (edited.getWidth() != previous.getWidth() || edited.getHeight() != previous.getHeight()) {
+            Gdx.app.log("MapWatcher", file.getFileName() + " changed size; restart the level to load it");
+            return;
+        }
+
+        int[] changes = diff(previous, edited);
+        synchronized (this) {
+            if (generation != reloadGeneration) {
+                return; // Another map was selected while parsing
+            }
+            fileVersion = edited;
+        }
+        if (changes.length > 0) {
+            Gdx.app.postRunnable(() -> apply(reloadGeneration, changes, start));
+        }
+    }
+
+    /**
+     * Writes changed cells into the live map. Runs on the render thread, between frames.
+     */
+    private void apply(int patchGeneration, int[] changes, long start) {
+        synchronized (this) {
+            if (generation != patchGeneration) {
+                return;
+            }
+        }
+        MazeMap map = MapDataHolder.getSelectedMap();
+        for (int i = 0; i < changes.length; i += 3) {
+            map.setCell(changes[i], changes[i + 1], changes[i + 2]);
+        }
+        Gdx.app.log("MapWatcher", "Applied " + changes.length / 3 + " changed cells in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Compares two grids of the same size.
+     *
+     * @return The changed cells as consecutive x, y, new type triples.
+     */
+    private static int[] diff(MazeGrid previous, MazeGrid edited) {
+        byte[] before = previous.getCells();
+        byte[] after = edited.getCells();
+        int width = edited.getWidth();
+        int[] changes = new int[48];
+        int count = 0;
+        for (int i = 0; i < after.length; i++) {
+            if (before[i] != after[i]) {
+                if (count + 3 > changes.length) {
+                    changes = Arrays.copyOf(changes, changes.length * 2);
+                }
+                changes[count++] = i % width;
+                changes[count++] = i / width;
+                changes[count++] = after[i];
+            }
+        }
+        return Arrays.copyOf(changes, count);
+    }
+}
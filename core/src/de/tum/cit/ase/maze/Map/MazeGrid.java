@@ -0,0 +1,206 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The `MazeGrid` class is a fully loaded `MazeMap` stored in a single byte array.
+ * Cells are kept row by row starting at the bottom row, so cell (x, y) is at index y * width + x.
+ * Cell types only range from 0 to 6, so one byte per cell takes a quarter of the memory of an int grid
+ * and a whole row is one contiguous run of memory.
+ */
+public class MazeGrid implements MazeMap {
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final LevelIndex index;
+    private final DirtyRegions dirtyRegions = new DirtyRegions();
+    // Only the cells that turned into walls or stopped being walls, which is all the pathfinding depends on
+    private final DirtyRegions wallChanges = new DirtyRegions();
+
+    /**
+     * Creates a grid with every cell set to the given type.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param type   The initial type of every cell.
+     */
+    public MazeGrid(int width, int height, int type) {
+        this(width, height, filledCells(width, height, type));
+    }
+
+    /**
+     * Creates a grid around existing cells, without copying them, and indexes its special cells.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param cells  The cells, row by row starting at the bottom row.
+     */
+    public MazeGrid(int width, int height, byte[] cells) {
+        this(width, height, cells, indexCells(width, cells));
+    }
+
+    /**
+     * Creates a grid around existing cells and the index a loader built while filling them.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param cells  The cells, row by row starting at the bottom row.
+     * @param index  The index of the special cells among them.
+     */
+    public MazeGrid(int width, int height, byte[] cells, LevelIndex index) {
+        if (cells.length != checkSize(width, height)) {
+            throw new IllegalArgumentException("Expected " + width * height + " cells but got " + cells.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.index = index;
+    }
+
+    private static byte[] filledCells(int width, int height, int type) {
+        byte[] cells = new byte[checkSize(width, height)];
+        Arrays.fill(cells, (byte) type);
+        return cells;
+    }
+
+    private static LevelIndex indexCells(int width, byte[] cells) {
+        LevelIndex index = new LevelIndex();
+        for (int i = 0; i < cells.length; i++) {
+            index.add(i % width, i / width, cells[i]);
+        }
+        return index;
+    }
+
+    private static int checkSize(int width, int height) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid size " + width + "x" + height);
+        }
+        return width * height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getCell(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    @Override
+    public void setCell(int x, int y, int type) {
+        int i = index(x, y);
+        if (cells[i] != (byte) type) {
+            index.onCellChanged(x, y, cells[i], (byte) type);
+            if ((cells[i] == 0) != (type == 0)) {
+                wallChanges.add(x, y);
+            }
+            cells[i] = (byte) type;
+            dirtyRegions.add(x, y);
+        }
+    }
+
+    @Override
+    public LevelIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public DirtyRegions getDirtyRegions() {
+        return dirtyRegions;
+    }
+
+    /**
+     * Collects the cells that became walls or stopped being walls, separately from `getDirtyRegions`, which the
+     * renderer clears every frame. The `PathfindingService` of this grid clears it when it catches up.
+     *
+     * @return The regions where walls changed.
+     */
+    public DirtyRegions getWallChanges() {
+        return wallChanges;
+    }
+
+    /**
+     * Retrieves the type of a cell, or a fallback for coordinates outside the grid.
+     *
+     * @param x        The column of the cell.
+     * @param y        The row of the cell.
+     * @param fallback The type returned for cells outside the grid.
+     * @return The cell type, or the fallback.
+     */
+    public int getCellOrDefault(int x, int y, int fallback) {
+        return isInBounds(x, y) ? cells[y * width + x] : fallback;
+    }
+
+    /**
+     * Checks whether a cell lies inside the grid.
+     *
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return True if the cell is inside the grid.
+     */
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Computes the position of a cell in the backing array.
+     *
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The index of the cell in `getCells()`.
+     */
+    public int index(int x, int y) {
+        if (!isInBounds(x, y)) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside the " + width + "x" + height + " grid");
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Gives direct access to the backing array, for loops that walk the grid row by row.
+     * Cells should only be changed through `setCell`, which keeps the index up to date.
+     *
+     * @return The cells, row by row starting at the bottom row.
+     */
+    public byte[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Gives a read-only view of one row.
+     *
+     * @param y The row.
+     * @return A buffer over the cells of the row, from left to right.
+     */
+    public ByteBuffer getRow(int y) {
+        index(0, y);
+        return ByteBuffer.wrap(cells, y * width, width).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies one row into the given array.
+     *
+     * @param y           The row.
+     * @param destination The array receiving the cells of the row, from left to right.
+     * @param offset      The position in the destination of the leftmost cell.
+     */
+    public void copyRow(int y, byte[] destination, int offset) {
+        System.arraycopy(cells, index(0, y), destination, offset, width);
+    }
+
+    /**
+     * @return An independent copy of this grid.
+     */
+    public MazeGrid copy() {
+        return new MazeGrid(width, height, cells.clone(), index.copy());
+    }
+}
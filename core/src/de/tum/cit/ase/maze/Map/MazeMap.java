@@ -0,0 +1,64 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The `MazeMap` interface gives uniform cell access to a maze, regardless of how its cells are stored.
+ * Coordinates are in cells, with (0, 0) in the bottom left corner.
+ * A map that is no longer used should be closed, since some maps keep their file open while they are played.
+ */
+public interface MazeMap extends Closeable {
+
+    /**
+     * @return The number of columns of the maze.
+     */
+    int getWidth();
+
+    /**
+     * @return The number of rows of the maze.
+     */
+    int getHeight();
+
+    /**
+     * Retrieves the type of a cell.
+     *
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The cell type.
+     */
+    int getCell(int x, int y);
+
+    /**
+     * Changes the type of a cell.
+     *
+     * @param x    The column of the cell.
+     * @param y    The row of the cell.
+     * @param type The new cell type.
+     */
+    void setCell(int x, int y, int type);
+
+    /**
+     * Retrieves the index of the special cells of this map. It is kept up to date by `setCell`.
+     *
+     * @return The index of the entry, exits, traps, enemy spawns and keys.
+     */
+    LevelIndex getIndex();
+
+    /**
+     * Retrieves the cells changed by `setCell` since the regions were last cleared,
+     * so caches built from the cells only rebuild the parts that changed.
+     *
+     * @return The rectangles of changed cells.
+     */
+    DirtyRegions getDirtyRegions();
+
+    /**
+     * Releases the file and threads the map holds. Fully loaded maps hold neither, so by default this does nothing.
+     *
+     * @throws IOException If the map's file cannot be closed.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,853 @@
+package de.tum.cit.ase.maze.Map;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The `PathfindingService` class finds ways through a maze of any size, for the game screen, the enemies and tools
+ * alike. A plain A* search on a large maze looks at a big part of all cells, so instead the maze is cut into square
+ * sectors once, when it is loaded. Where two neighboring sectors touch through floor, an entrance is placed, and
+ * the walking distance between every two entrances of a sector is measured. A query then searches this much
+ * smaller graph of entrances, and only the sectors along the way found are searched cell by cell.
+ * <p>
+ * To keep long queries short, the graph is also split into its connected parts, so that a query between two parts
+ * is answered without a search, and the distances from a few landmarks to every entrance are measured, which tell
+ * the search how far the goal is at least, around walls the straight distance does not see. The ways found are at
+ * most a little longer than the shortest ones, since they always pass through entrances and the search heads for
+ * the goal a little more eagerly than finding the shortest way allows.
+ * Recent ways between two sectors are remembered, so repeated queries between the same areas skip the search.
+ * Cells are given as `row * width + column`, like `MazeGrid.index`. Walls changed later, for example by reloading
+ * the map file, are caught up with on the next query through `MazeGrid.getWallChanges`: only the sectors whose walls
+ * or entrances changed are measured again, and the remembered ways are forgotten.
+ * <p>
+ * A query reuses the search state of the previous one, so a service must only be used by one thread at a time,
+ * and a grid should have only one service, which is the one keeping up with its wall changes.
+ */
+public class PathfindingService {
+
+    public static final int DEFAULT_SECTOR_SIZE = 16;
+    // Entrances at least this wide get one at each end, narrower ones a single one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+    // How many ways between sectors are remembered
+    private static final int CACHE_SIZE = 64;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int NONE = -1;
+    private static final char NO_WAY = Character.MAX_VALUE;
+    // How many landmarks guide the search over the graph
+    private static final int LANDMARKS = 8;
+    // The estimate of the distance left is counted this many quarters. A little more than the distance makes the
+    // search head for the goal instead of widening along every way of nearly the same length, at the price of ways
+    // up to that much longer than the shortest over the graph. On large generated mazes, the ways found are 4 to 8
+    // percent longer than the shortest over the cells on average, against up to 2 percent without it.
+    private static final int ESTIMATE_QUARTERS = 5;
+    // The layout of a node's search state
+    private static final int STATE_SIZE = 4;
+    private static final int VISITED = 0;
+    private static final int CLOSED = 1;
+    private static final int COST = 2;
+    private static final int PARENT = 3;
+
+    private final MazeGrid grid;
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final int sectorSize;
+    private final int sectorsX;
+    private final int sectorCount;
+
+    // The graph of entrances. The nodes of a sector are numbered one after another, from `sectorNodeStart`.
+    private int nodeCount;
+    private int[] nodeCell;
+    private int[] nodeSector;
+    private int[] sectorNodeStart;
+    // The node on the other side of the entrance, for up to two entrances per node (a cell in the corner of a
+    // sector can be next to two other sectors)
+    private int[] otherSide;
+    // Per sector, a table of the walking distances between its nodes, row by row from `sectorTableStart`.
+    // A sector's distances fit into a char as long as the sector has fewer cells than `NO_WAY`.
+    private int[] sectorTableStart;
+    private char[] distances;
+    // The most nodes any sector has
+    private int maxSectorNodes;
+    // The part of the graph every node belongs to; nodes of different parts have no way between them
+    private int[] component;
+    private int largestComponent;
+    // The distance on the graph from every landmark to every node of the largest part, which bounds the distance
+    // between any two of its nodes from below. The landmarks of a node are next to each other, at `node * landmarks`.
+    private int landmarks;
+    private int[] landmarkDistance;
+
+    // A* over the graph; the start and the goal of a query are the two nodes after the entrances. Per node, four
+    // ints next to each other, so that looking at a node touches memory once: the search that reached it last, the
+    // search that expanded it last, its cost from the start and the node it was reached from.
+    // Sized for the graph, so they are replaced when the graph is built again.
+    private int[] state;
+    private int search;
+    private long[] open = new long[64];
+    private int[] openNodes = new int[64];
+    private int openSize;
+    // The distance from the start to the nodes of its sector, and from the nodes of the goal's sector to the goal
+    private int[] startDistance;
+    private int[] goalDistance;
+    private int goalCell;
+    // The distance from every landmark to the goal, if the goal is in the largest part of the graph
+    private final int[] goalLandmarkDistance = new int[LANDMARKS];
+    private boolean isGoalNearLandmarks;
+
+    // Breadth-first search within one sector, by the cell's position within the sector
+    private final int[] localParent;
+    private final int[] localDistance;
+    private final int[] localVisited;
+    private final int[] localQueue;
+    private int localSearch;
+    private int localSector = NONE;
+    private int localOrigin = NONE;
+
+    // The nodes between the start's and the goal's sectors on recent ways, by the pair of sectors
+    private final Map<Long, int[]> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final IntArray waypointNodes = new IntArray();
+
+    /**
+     * Prepares a maze with sectors of the default size.
+     *
+     * @param grid The maze.
+     */
+    public PathfindingService(MazeGrid grid) {
+        this(grid, DEFAULT_SECTOR_SIZE);
+    }
+
+    /**
+     * Prepares a maze: places the entrances between sectors and measures the distances between them.
+     * This walks every cell a few times, so it belongs to loading the level or to the first query.
+     *
+     * @param grid       The maze.
+     * @param sectorSize The width of a sector in cells. Larger sectors make a smaller graph but slower
+     *                   searches within a sector.
+     */
+    public PathfindingService(MazeGrid grid, int sectorSize) {
+        if (sectorSize < 2 || sectorSize * sectorSize >= NO_WAY) {
+            throw new IllegalArgumentException("Sector size " + sectorSize + " is not between 2 and 255");
+        }
+        this.grid = grid;
+        cells = grid.getCells();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        this.sectorSize = sectorSize;
+        sectorsX = (width + sectorSize - 1) / sectorSize;
+        sectorCount = sectorsX * ((height + sectorSize - 1) / sectorSize);
+
+        int area = sectorSize * sectorSize;
+        localParent = new int[area];
+        localDistance = new int[area];
+        localVisited = new int[area];
+        localQueue = new int[area];
+
+        grid.getWallChanges().clear(); // Already part of the cells read now
+        buildGraph(null);
+        allocateSearch();
+        measureLandmarks();
+    }
+
+    /**
+     * Finds a way between two cells, cell by cell.
+     *
+     * @param startCol The column of the start.
+     * @param startRow The row of the start.
+     * @param goalCol  The column of the goal.
+     * @param goalRow  The row of the goal.
+     * @param path     Cleared, then receives every cell of the way from the start to the goal, both included.
+     * @return False if there is no way, or the start or the goal is a wall or outside the maze.
+     */
+    public boolean findPath(int startCol, int startRow, int goalCol, int goalRow, IntArray path) {
+        IntArray waypoints = path;
+        if (!findWaypoints(startCol, startRow, goalCol, goalRow, waypoints)) {
+            return false;
+        }
+        // The waypoints are refined in place, so they are copied out first
+        int[] corners = Arrays.copyOf(waypoints.items, waypoints.size);
+        path.clear();
+        path.add(corners[0]);
+        for (int i = 1; i < corners.length; i++) {
+            int from = corners[i - 1];
+            int to = corners[i];
+            int sector = sectorOf(from);
+            if (sector != sectorOf(to)) {
+                path.add(to); // Neighboring cells on either side of an entrance
+                continue;
+            }
+            searchSector(sector, from);
+            appendLocalPath(to, path);
+        }
+        return true;
+    }
+
+    /**
+     * Finds a way between two cells, only as the entrances it passes through. This is much cheaper than `findPath`
+     * over long distances; the way between two following waypoints stays within one sector, or they are neighbors.
+     *
+     * @param startCol  The column of the start.
+     * @param startRow  The row of the start.
+     * @param goalCol   The column of the goal.
+     * @param goalRow   The row of the goal.
+     * @param waypoints Cleared, then receives the start, the entrances on the way, and the goal.
+     * @return False if there is no way, or the start or the goal is a wall or outside the maze.
+     */
+    public boolean findWaypoints(int startCol, int startRow, int goalCol, int goalRow, IntArray waypoints) {
+        waypoints.clear();
+        catchUp();
+        if (!isFloor(startCol, startRow) || !isFloor(goalCol, goalRow)) {
+            return false;
+        }
+        int start = startRow * width + startCol;
+        goalCell = goalRow * width + goalCol;
+        int startSector = sectorOf(start);
+        int goalSector = sectorOf(goalCell);
+        localSector = NONE; // Walls may have changed since the last query
+
+        // The distances from the nodes of the goal's sector to the goal, which are the same both ways
+        searchSector(goalSector, goalCell);
+        measureNodes(goalSector, goalDistance);
+        int direct = localDistanceTo(start);
+        searchSector(startSector, start);
+        measureNodes(startSector, startDistance);
+
+        waypointNodes.clear();
+        if (startSector == goalSector && direct != UNREACHED) {
+            // A way within the sector; a way leaving the sector is not searched for, even if it were shorter
+        } else if (componentOf(startSector, startDistance) != componentOf(goalSector, goalDistance)
+                || componentOf(startSector, startDistance) == NONE) {
+            return false; // Answered without searching, however much of the maze the start could reach
+        } else if (!reuseCachedWay(startSector, goalSector) && !searchGraph(startSector, goalSector)) {
+            return false;
+        }
+
+        waypoints.add(start);
+        for (int i = 0; i < waypointNodes.size; i++) {
+            waypoints.add(nodeCell[waypointNodes.get(i)]);
+        }
+        if (goalCell != start) {
+            waypoints.add(goalCell);
+        }
+        return true;
+    }
+
+    /**
+     * @return The width of the maze in cells, for turning the cells of a path back into columns and rows.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of entrances in the graph, which is what a long query's cost depends on.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // Builds the graph again where walls changed since the last query
+    private void catchUp() {
+        DirtyRegions changes = grid.getWallChanges();
+        if (changes.isEmpty()) {
+            return;
+        }
+        boolean[] changed = new boolean[sectorCount];
+        for (int i = 0; i < changes.getCount(); i++) {
+            for (int row = changes.getMinY(i) / sectorSize; row <= changes.getMaxY(i) / sectorSize; row++) {
+                for (int col = changes.getMinX(i) / sectorSize; col <= changes.getMaxX(i) / sectorSize; col++) {
+                    changed[row * sectorsX + col] = true;
+                }
+            }
+        }
+        changes.clear();
+        buildGraph(changed);
+        allocateSearch();
+        measureLandmarks(); // The distances on the graph changed with the walls
+        cache.clear(); // The remembered ways may lead through new walls, or miss new shortcuts
+    }
+
+    private void allocateSearch() {
+        state = new int[(nodeCount + 2) * STATE_SIZE];
+        startDistance = new int[maxSectorNodes];
+        goalDistance = new int[maxSectorNodes];
+    }
+
+    // The part of the graph the nodes of a sector that a search within the sector reached belong to. The reached
+    // nodes are connected through the cell the search started from, so they all belong to the same part.
+    private int componentOf(int sector, int[] nodeDistance) {
+        int first = sectorNodeStart[sector];
+        for (int i = first; i < sectorNodeStart[sector + 1]; i++) {
+            if (nodeDistance[i - first] != UNREACHED) {
+                return component[i];
+            }
+        }
+        return NONE;
+    }
+
+    private boolean reuseCachedWay(int startSector, int goalSector) {
+        int[] nodes = cache.get(key(startSector, goalSector));
+        // The remembered way only fits if the start and the goal reach its ends within their sectors
+        if (nodes == null || startDistance[slotOf(nodes[0])] == UNREACHED
+                || goalDistance[slotOf(nodes[nodes.length - 1])] == UNREACHED) {
+            return false;
+        }
+        for (int node : nodes) {
+            waypointNodes.add(node);
+        }
+        return true;
+    }
+
+    private boolean searchGraph(int startSector, int goalSector) {
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+        measureGoalToLandmarks(goalSector);
+        search++;
+        openSize = 0;
+        visit(startNode, 0, NONE);
+        while (openSize > 0) {
+            int node = pop();
+            if (state[node * STATE_SIZE + CLOSED] == search) {
+                continue; // Already expanded through a shorter way
+            }
+            state[node * STATE_SIZE + CLOSED] = search;
+            if (node == goalNode) {
+                break;
+            }
+            int nodeCost = state[node * STATE_SIZE + COST];
+            if (node == startNode) {
+                int first = sectorNodeStart[startSector];
+                for (int i = first; i < sectorNodeStart[startSector + 1]; i++) {
+                    if (startDistance[i - first] != UNREACHED) {
+                        visit(i, startDistance[i - first], node);
+                    }
+                }
+                continue;
+            }
+            int sector = nodeSector[node];
+            int first = sectorNodeStart[sector];
+            int nodes = sectorNodeStart[sector + 1] - first;
+            int row = sectorTableStart[sector] + (node - first) * nodes;
+            for (int i = 0; i < nodes; i++) {
+                char distance = distances[row + i];
+                if (distance != NO_WAY && first + i != node) {
+                    visit(first + i, nodeCost + distance, node);
+                }
+            }
+            for (int i = node * 2; i < node * 2 + 2 && otherSide[i] != NONE; i++) {
+                visit(otherSide[i], nodeCost + 1, node);
+            }
+            if (sector == goalSector && goalDistance[slotOf(node)] != UNREACHED) {
+                visit(goalNode, nodeCost + goalDistance[slotOf(node)], node);
+            }
+        }
+        if (state[goalNode * STATE_SIZE + CLOSED] != search) {
+            return false;
+        }
+
+        for (int node = state[goalNode * STATE_SIZE + PARENT]; node != startNode;
+             node = state[node * STATE_SIZE + PARENT]) {
+            waypointNodes.add(node);
+        }
+        // The nodes were added from the goal backwards
+        int[] nodes = new int[waypointNodes.size];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = waypointNodes.get(nodes.length - 1 - i);
+        }
+        System.arraycopy(nodes, 0, waypointNodes.items, 0, nodes.length);
+        cache.put(key(startSector, goalSector), nodes);
+        return true;
+    }
+
+    private void visit(int node, int newCost, int from) {
+        int at = node * STATE_SIZE;
+        if (state[at + VISITED] == search && state[at + COST] <= newCost) {
+            return;
+        }
+        state[at + VISITED] = search;
+        state[at + COST] = newCost;
+        state[at + PARENT] = from;
+        push(newCost + estimate(node) * ESTIMATE_QUARTERS / 4, newCost, node);
+    }
+
+    // A lower bound of the distance from a node to the goal: the straight distance, or how much farther from a
+    // landmark the goal is than the node, or the other way round, whichever is more
+    private int estimate(int node) {
+        if (node >= nodeCount) {
+            return 0; // The start and the goal themselves
+        }
+        int cell = nodeCell[node];
+        int estimate = Math.abs(cell % width - goalCell % width) + Math.abs(cell / width - goalCell / width);
+        if (isGoalNearLandmarks) {
+            int offset = node * landmarks;
+            for (int landmark = 0; landmark < landmarks; landmark++) {
+                int difference = Math.abs(goalLandmarkDistance[landmark] - landmarkDistance[offset + landmark]);
+                if (difference > estimate) {
+                    estimate = difference;
+                }
+            }
+        }
+        return estimate;
+    }
+
+    // The distance from every landmark to the goal goes through one of the nodes of the goal's sector
+    private void measureGoalToLandmarks(int goalSector) {
+        isGoalNearLandmarks = componentOf(goalSector, goalDistance) == largestComponent;
+        if (!isGoalNearLandmarks) {
+            return;
+        }
+        int first = sectorNodeStart[goalSector];
+        for (int landmark = 0; landmark < landmarks; landmark++) {
+            int best = UNREACHED;
+            for (int i = first; i < sectorNodeStart[goalSector + 1]; i++) {
+                if (goalDistance[i - first] != UNREACHED) {
+                    best = Math.min(best, landmarkDistance[i * landmarks + landmark] + goalDistance[i - first]);
+                }
+            }
+            goalLandmarkDistance[landmark] = best;
+        }
+    }
+
+    // Splits the graph into its connected parts, and picks landmarks in the largest one: each one as far as possible
+    // from the ones picked before, so that together they lie around its edges
+    private void measureLandmarks() {
+        component = new int[nodeCount];
+        Arrays.fill(component, NONE);
+        int[] queue = new int[nodeCount];
+        int largestSize = 0;
+        largestComponent = NONE;
+        int componentCount = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (component[root] != NONE) {
+                continue;
+            }
+            int size = 0;
+            component[root] = componentCount;
+            queue[size++] = root;
+            for (int head = 0; head < size; head++) {
+                int node = queue[head];
+                int sector = nodeSector[node];
+                int first = sectorNodeStart[sector];
+                int nodes = sectorNodeStart[sector + 1] - first;
+                int row = sectorTableStart[sector] + (node - first) * nodes;
+                for (int i = 0; i < nodes; i++) {
+                    if (distances[row + i] != NO_WAY && component[first + i] == NONE) {
+                        component[first + i] = componentCount;
+                        queue[size++] = first + i;
+                    }
+                }
+                for (int i = node * 2; i < node * 2 + 2 && otherSide[i] != NONE; i++) {
+                    if (component[otherSide[i]] == NONE) {
+                        component[otherSide[i]] = componentCount;
+                        queue[size++] = otherSide[i];
+                    }
+                }
+            }
+            if (size > largestSize) {
+                largestSize = size;
+                largestComponent = componentCount;
+            }
+            componentCount++;
+        }
+
+        landmarks = Math.min(LANDMARKS, largestSize);
+        landmarkDistance = new int[nodeCount * landmarks];
+        if (landmarks == 0) {
+            return;
+        }
+        int[] nearest = new int[nodeCount];
+        int[] distance = new int[nodeCount];
+        int landmark = 0;
+        while (component[landmark] != largestComponent) {
+            landmark++;
+        }
+        // The first landmark is the node farthest from an arbitrary one
+        measureFrom(landmark, nearest);
+        for (int i = 0; i < landmarks; i++) {
+            measureFrom(farthest(nearest), distance);
+            for (int node = 0; node < nodeCount; node++) {
+                landmarkDistance[node * landmarks + i] = distance[node];
+                nearest[node] = Math.min(i == 0 ? UNREACHED : nearest[node], distance[node]);
+            }
+        }
+    }
+
+    private static int farthest(int[] distance) {
+        int farthest = 0;
+        for (int node = 1; node < distance.length; node++) {
+            if (distance[node] != UNREACHED
+                    && (distance[farthest] == UNREACHED || distance[node] > distance[farthest])) {
+                farthest = node;
+            }
+        }
+        return farthest;
+    }
+
+    // Dijkstra's algorithm over the graph, from one node to every node of its part
+    private void measureFrom(int source, int[] distance) {
+        Arrays.fill(distance, UNREACHED);
+        search++;
+        openSize = 0;
+        distance[source] = 0;
+        push(0, 0, source);
+        while (openSize > 0) {
+            int node = pop();
+            if (state[node * STATE_SIZE + CLOSED] == search) {
+                continue;
+            }
+            state[node * STATE_SIZE + CLOSED] = search;
+            int nodeCost = distance[node];
+            int sector = nodeSector[node];
+            int first = sectorNodeStart[sector];
+            int nodes = sectorNodeStart[sector + 1] - first;
+            int row = sectorTableStart[sector] + (node - first) * nodes;
+            for (int i = 0; i < nodes; i++) {
+                char step = distances[row + i];
+                if (step != NO_WAY && nodeCost + step < distance[first + i]) {
+                    distance[first + i] = nodeCost + step;
+                    push(nodeCost + step, nodeCost + step, first + i);
+                }
+            }
+            for (int i = node * 2; i < node * 2 + 2 && otherSide[i] != NONE; i++) {
+                if (nodeCost + 1 < distance[otherSide[i]]) {
+                    distance[otherSide[i]] = nodeCost + 1;
+                    push(nodeCost + 1, nodeCost + 1, otherSide[i]);
+                }
+            }
+        }
+    }
+
+    // A binary heap of the nodes to expand, ordered by the estimated total cost, and among equal estimates by the
+    // cost so far, highest first: on open floor many ways are equally short, and this follows one of them to the end
+    // instead of widening all of them
+    private void push(int priority, int nodeCost, int node) {
+        if (openSize == open.length) {
+            open = Arrays.copyOf(open, openSize * 2);
+            openNodes = Arrays.copyOf(openNodes, openSize * 2);
+        }
+        long entry = (long) priority << 32 | (~nodeCost & 0xFFFFFFFFL);
+        int i = openSize++;
+        while (i > 0) {
+            int up = (i - 1) >> 1;
+            if (open[up] <= entry) {
+                break;
+            }
+            open[i] = open[up];
+            openNodes[i] = openNodes[up];
+            i = up;
+        }
+        open[i] = entry;
+        openNodes[i] = node;
+    }
+
+    private int pop() {
+        int top = openNodes[0];
+        long last = open[--openSize];
+        int lastNode = openNodes[openSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= openSize) {
+                break;
+            }
+            if (child + 1 < openSize && open[child + 1] < open[child]) {
+                child++;
+            }
+            if (last <= open[child]) {
+                break;
+            }
+            open[i] = open[child];
+            openNodes[i] = openNodes[child];
+            i = child;
+        }
+        open[i] = last;
+        openNodes[i] = lastNode;
+        return top;
+    }
+
+    // Places the entrances and measures the distances between them. With `changed`, only the sectors whose walls
+    // changed or whose entrances moved are measured; the distances of the others are kept from the previous graph.
+    private void buildGraph(boolean[] changed) {
+        int[] oldNodeStart = sectorNodeStart;
+        int[] oldNodeCell = nodeCell;
+        int[] oldTableStart = sectorTableStart;
+        char[] oldDistances = distances;
+        IntIntMap nodeOfCell = new IntIntMap();
+        IntArray cellOfNode = new IntArray();
+        IntArray entrances = new IntArray();
+
+        // Entrances along the right and the top border of every sector
+        for (int col = sectorSize - 1; col + 1 < width; col += sectorSize) {
+            for (int sectorRow = 0; sectorRow < height; sectorRow += sectorSize) {
+                int end = Math.min(sectorRow + sectorSize, height);
+                placeEntrances(col, sectorRow, end, 1, width, nodeOfCell, cellOfNode, entrances);
+            }
+        }
+        for (int row = sectorSize - 1; row + 1 < height; row += sectorSize) {
+            for (int sectorCol = 0; sectorCol < width; sectorCol += sectorSize) {
+                int end = Math.min(sectorCol + sectorSize, width);
+                placeEntrances(row, sectorCol, end, width, 1, nodeOfCell, cellOfNode, entrances);
+            }
+        }
+        nodeCount = cellOfNode.size;
+
+        // Numbers the nodes again, sorted by sector
+        sectorNodeStart = new int[sectorCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            sectorNodeStart[sectorOf(cellOfNode.get(i)) + 1]++;
+        }
+        sectorTableStart = new int[sectorCount + 1];
+        maxSectorNodes = 0;
+        for (int s = 0; s < sectorCount; s++) {
+            int nodes = sectorNodeStart[s + 1];
+            maxSectorNodes = Math.max(maxSectorNodes, nodes);
+            sectorTableStart[s + 1] = sectorTableStart[s] + nodes * nodes;
+            sectorNodeStart[s + 1] += sectorNodeStart[s];
+        }
+        int[] renumbered = new int[nodeCount];
+        int[] filled = Arrays.copyOf(sectorNodeStart, sectorCount);
+        nodeCell = new int[nodeCount];
+        nodeSector = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            int cell = cellOfNode.get(i);
+            int node = filled[sectorOf(cell)]++;
+            renumbered[i] = node;
+            nodeCell[node] = cell;
+            nodeSector[node] = sectorOf(cell);
+        }
+
+        otherSide = new int[nodeCount * 2];
+        Arrays.fill(otherSide, NONE);
+        for (int i = 0; i < entrances.size; i += 2) {
+            int a = renumbered[entrances.get(i)];
+            int b = renumbered[entrances.get(i + 1)];
+            otherSide[otherSide[a * 2] == NONE ? a * 2 : a * 2 + 1] = b;
+            otherSide[otherSide[b * 2] == NONE ? b * 2 : b * 2 + 1] = a;
+        }
+
+        // The walking distance between every two nodes of a sector, within the sector, which is the same both ways
+        distances = new char[sectorTableStart[sectorCount]];
+        for (int s = 0; s < sectorCount; s++) {
+            int first = sectorNodeStart[s];
+            int nodes = sectorNodeStart[s + 1] - first;
+            int table = sectorTableStart[s];
+            if (changed != null && !changed[s] && hasSameNodes(s, oldNodeStart, oldNodeCell)) {
+                System.arraycopy(oldDistances, oldTableStart[s], distances, table, nodes * nodes);
+                continue;
+            }
+            for (int i = 0; i < nodes; i++) {
+                searchSector(s, nodeCell[first + i]);
+                for (int j = i; j < nodes; j++) {
+                    int distance = localDistanceTo(nodeCell[first + j]);
+                    char stored = distance == UNREACHED ? NO_WAY : (char) distance;
+                    distances[table + i * nodes + j] = stored;
+                    distances[table + j * nodes + i] = stored;
+                }
+            }
+            dropDetours(table, nodes);
+        }
+    }
+
+    // Leaves out the distances between two nodes of a sector that are as long as going through a third node of the
+    // sector: the search still finds them through the third node, and on open floor, where many entrances are in a
+    // line, most of them can be left out. Comparing against the distances before any were left out is enough, since
+    // the way through the third node is shorter and so is itself either kept or made of shorter ones.
+    private void dropDetours(int table, int nodes) {
+        boolean[] detour = new boolean[nodes * nodes];
+        for (int i = 0; i < nodes; i++) {
+            for (int j = i + 1; j < nodes; j++) {
+                char direct = distances[table + i * nodes + j];
+                for (int k = 0; k < nodes && direct != NO_WAY; k++) {
+                    char first = distances[table + i * nodes + k];
+                    char second = distances[table + k * nodes + j];
+                    if (k != i && k != j && first != NO_WAY && second != NO_WAY && first + second == direct) {
+                        detour[i * nodes + j] = true;
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            for (int j = i + 1; j < nodes; j++) {
+                if (detour[i * nodes + j]) {
+                    distances[table + i * nodes + j] = NO_WAY;
+                    distances[table + j * nodes + i] = NO_WAY;
+                }
+            }
+        }
+    }
+
+    // Whether a sector has the same entrances, in the same order, as in the previous graph
+    private boolean hasSameNodes(int sector, int[] oldNodeStart, int[] oldNodeCell) {
+        int first = sectorNodeStart[sector];
+        int oldFirst = oldNodeStart[sector];
+        int nodes = sectorNodeStart[sector + 1] - first;
+        if (nodes != oldNodeStart[sector + 1] - oldFirst) {
+            return false;
+        }
+        for (int i = 0; i < nodes; i++) {
+            if (nodeCell[first + i] != oldNodeCell[oldFirst + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Walks one border between two sectors and places entrances where both sides are floor.
+    // `border` is the column or row on the near side, `across` the step to the far side and `along` the step
+    // along the border, both in cells of the backing array.
+    private void placeEntrances(int border, int begin, int end, int across, int along, IntIntMap nodeOfCell,
+                                IntArray cellOfNode, IntArray entrances) {
+        int base = across == 1 ? border : border * width;
+        int runStart = NONE;
+        for (int i = begin; i <= end; i++) {
+            int near = base + i * along;
+            boolean open = i < end && cells[near] != 0 && cells[near + across] != 0;
+            if (open && runStart == NONE) {
+                runStart = i;
+            } else if (!open && runStart != NONE) {
+                int last = i - 1;
+                if (last - runStart + 1 >= WIDE_ENTRANCE) {
+                    connect(base + runStart * along, across, nodeOfCell, cellOfNode, entrances);
+                    connect(base + last * along, across, nodeOfCell, cellOfNode, entrances);
+                } else {
+                    connect(base + (runStart + last) / 2 * along, across, nodeOfCell, cellOfNode, entrances);
+                }
+                runStart = NONE;
+            }
+        }
+    }
+
+    private void connect(int near, int across, IntIntMap nodeOfCell, IntArray cellOfNode, IntArray entrances) {
+        entrances.add(nodeOf(near, nodeOfCell, cellOfNode));
+        entrances.add(nodeOf(near + across, nodeOfCell, cellOfNode));
+    }
+
+    private int nodeOf(int cell, IntIntMap nodeOfCell, IntArray cellOfNode) {
+        int node = nodeOfCell.get(cell, NONE);
+        if (node == NONE) {
+            node = cellOfNode.size;
+            cellOfNode.add(cell);
+            nodeOfCell.put(cell, node);
+        }
+        return node;
+    }
+
+    // Breadth-first search from a cell to every cell of its sector it reaches without leaving the sector
+    private void searchSector(int sector, int origin) {
+        if (sector == localSector && origin == localOrigin) {
+            return; // Still the result of the last search
+        }
+        localSector = sector;
+        localOrigin = origin;
+        localSearch++;
+        int left = sector % sectorsX * sectorSize;
+        int bottom = sector / sectorsX * sectorSize;
+        int right = Math.min(left + sectorSize, width);
+        int top = Math.min(bottom + sectorSize, height);
+
+        int columns = right - left;
+        int rows = top - bottom;
+        int corner = bottom * width + left;
+
+        int head = 0;
+        int tail = 0;
+        int first = (origin / width - bottom) * sectorSize + origin % width - left;
+        localVisited[first] = localSearch;
+        localDistance[first] = 0;
+        localParent[first] = NONE;
+        localQueue[tail++] = first;
+        while (head < tail) {
+            int local = localQueue[head++];
+            int col = local % sectorSize;
+            int row = local / sectorSize;
+            int cell = corner + row * width + col;
+            int distance = localDistance[local] + 1;
+            if (col + 1 < columns && cells[cell + 1] != 0) {
+                tail = reach(local + 1, local, distance, tail);
+            }
+            if (col > 0 && cells[cell - 1] != 0) {
+                tail = reach(local - 1, local, distance, tail);
+            }
+            if (row + 1 < rows && cells[cell + width] != 0) {
+                tail = reach(local + sectorSize, local, distance, tail);
+            }
+            if (row > 0 && cells[cell - width] != 0) {
+                tail = reach(local - sectorSize, local, distance, tail);
+            }
+        }
+    }
+
+    private int reach(int local, int from, int distance, int tail) {
+        if (localVisited[local] == localSearch) {
+            return tail;
+        }
+        localVisited[local] = localSearch;
+        localDistance[local] = distance;
+        localParent[local] = from;
+        localQueue[tail] = local;
+        return tail + 1;
+    }
+
+    private int localIndex(int cell) {
+        int left = localSector % sectorsX * sectorSize;
+        int bottom = localSector / sectorsX * sectorSize;
+        return (cell / width - bottom) * sectorSize + cell % width - left;
+    }
+
+    private int localDistanceTo(int cell) {
+        if (sectorOf(cell) != localSector) {
+            return UNREACHED;
+        }
+        int local = localIndex(cell);
+        return localVisited[local] == localSearch ? localDistance[local] : UNREACHED;
+    }
+
+    // Appends the way from the last sector search's origin to a cell, without the origin itself
+    private void appendLocalPath(int cell, IntArray path) {
+        int left = localSector % sectorsX * sectorSize;
+        int bottom = localSector / sectorsX * sectorSize;
+        int first = path.size;
+        for (int local = localIndex(cell); localParent[local] != NONE; local = localParent[local]) {
+            path.add((bottom + local / sectorSize) * width + left + local % sectorSize);
+        }
+        // The cells were added from the end of the way backwards
+        for (int i = first, j = path.size - 1; i < j; i++, j--) {
+            int swap = path.items[i];
+            path.items[i] = path.items[j];
+            path.items[j] = swap;
+        }
+    }
+
+    // Stores the last sector search's distance to every node of the sector, by the node's slot in the sector
+    private void measureNodes(int sector, int[] result) {
+        int first = sectorNodeStart[sector];
+        for (int i = first; i < sectorNodeStart[sector + 1]; i++) {
+            result[i - first] = localDistanceTo(nodeCell[i]);
+        }
+    }
+
+    private int slotOf(int node) {
+        return node - sectorNodeStart[nodeSector[node]];
+    }
+
+    private int sectorOf(int cell) {
+        return cell / width / sectorSize * sectorsX + cell % width / sectorSize;
+    }
+
+    private boolean isFloor(int col, int row) {
+        return col >= 0 && col < width && row >= 0 && row < height && cells[row * width + col] != 0;
+    }
+
+    private static long key(int startSector, int goalSector) {
+        return (long) startSector << 32 | goalSector;
+    }
+}
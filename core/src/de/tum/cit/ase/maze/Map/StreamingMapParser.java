@@ -0,0 +1,286 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The `StreamingMapParser` class reads a maze properties file in a single pass.
+ * Instead of loading the file into a `Properties` table, it scans the raw bytes of every
+ * "x,y=type" line and writes the cell straight into a grid that grows as coordinates appear.
+ * The `LevelIndex` of special cells is built along the way.
+ * An optional "Width"/"Height" header is used to size the grid up front.
+ */
+public class StreamingMapParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte DEFAULT_CELL = 6;
+    private static final int INITIAL_CAPACITY = 16;
+    // The most cells a byte array can hold; larger sizes in the header or coordinates are rejected
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private static final byte[] WIDTH_KEY = {'W', 'i', 'd', 't', 'h'};
+    private static final byte[] HEIGHT_KEY = {'H', 'e', 'i', 'g', 'h', 't'};
+
+    // Cells are stored row-major with a stride of capacityX, so cells[y * capacityX + x] is the cell at (x, y)
+    private byte[] cells = new byte[0];
+    private int capacityX;
+    private int capacityY;
+    private int maxX = 0;
+    private int maxY = 0;
+    private final LevelIndex index = new LevelIndex();
+
+    // Reusable buffer holding the current line, so no String is created per key
+    private byte[] line = new byte[64];
+    private int lineLength;
+
+    // Cursor used while parsing the current line
+    private int pos;
+
+    private StreamingMapParser() {
+    }
+
+    /**
+     * Parses the given maze properties file into a grid.
+     * Cells without an entry in the file default to 6.
+     *
+     * @param fileName The name of the file containing maze properties.
+     * @return A grid representing the loaded maze.
+     * @throws IOException If the file cannot be read, or its size or coordinates are too large for a grid.
+     */
+    public static MazeGrid parse(String fileName) throws IOException {
+        try (InputStream inputStream = new FileInputStream(fileName)) {
+            return parse(inputStream);
+        }
+    }
+
+    /**
+     * Parses maze properties from the given stream into a grid.
+     *
+     * @param inputStream The stream containing maze properties. It is not closed by this method.
+     * @return A grid representing the loaded maze.
+     * @throws IOException If the stream cannot be read, or its size or coordinates are too large for a grid.
+     */
+    public static MazeGrid parse(InputStream inputStream) throws IOException {
+        StreamingMapParser parser = new StreamingMapParser();
+        parser.ensureCapacity(INITIAL_CAPACITY, INITIAL_CAPACITY);
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n' || b == '\r') {
+                    parser.parseLine();
+                } else {
+                    parser.appendToLine(b);
+                }
+            }
+        }
+        parser.parseLine(); // The last line may not end with a line break
+
+        return parser.toGrid();
+    }
+
+    private void appendToLine(byte b) {
+        if (lineLength == line.length) {
+            line = Arrays.copyOf(line, line.length * 2);
+        }
+        line[lineLength++] = b;
+    }
+
+    /**
+     * Parses the buffered line and clears it. Blank lines, comments and unknown keys are skipped.
+     */
+    private void parseLine() throws IOException {
+        pos = 0;
+        skipWhitespace();
+        if (pos < lineLength && line[pos] != '#' && line[pos] != '!') {
+            if (isDigit(line[pos])) {
+                parseCell();
+            } else {
+                parseHeader();
+            }
+        }
+        lineLength = 0;
+    }
+
+    /**
+     * Parses an "x,y=type" line and stores the cell.
+     */
+    private void parseCell() throws IOException {
+        long x = parseNumber();
+        if (pos >= lineLength || line[pos] != ',') {
+            return; // Skip invalid coordinates
+        }
+        pos++;
+        if (pos >= lineLength || !isDigit(line[pos])) {
+            return; // Skip invalid coordinates
+        }
+        long y = parseNumber();
+        if (!skipSeparator()) {
+            return; // Skip invalid coordinates
+        }
+        setCell(x, y, parseValue());
+    }
+
+    /**
+     * Parses an optional "Width=n" or "Height=n" line and grows the grid to fit it.
+     */
+    private void parseHeader() throws IOException {
+        boolean width = matchKey(WIDTH_KEY);
+        boolean height = !width && matchKey(HEIGHT_KEY);
+        if ((width || height) && skipSeparator() && pos < lineLength && isDigit(line[pos])) {
+            long size = parseNumber();
+            if (width) {
+                checkSize(size, capacityY);
+                ensureCapacity((int) size, capacityY);
+            } else {
+                checkSize(capacityX, size);
+                ensureCapacity(capacityX, (int) size);
+            }
+        }
+    }
+
+    private boolean matchKey(byte[] key) {
+        if (lineLength - pos < key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (line[pos + i] != key[i]) {
+                return false;
+            }
+        }
+        pos += key.length;
+        return true;
+    }
+
+    /**
+     * Skips the key/value separator the same way `Properties` does: whitespace, optionally around one '=' or ':'.
+     *
+     * @return True if the line continues with a value after the separator.
+     */
+    private boolean skipSeparator() {
+        int start = pos;
+        skipWhitespace();
+        if (pos < lineLength && (line[pos] == '=' || line[pos] == ':')) {
+            pos++;
+            skipWhitespace();
+        } else if (pos == start) {
+            return false; // The key is followed by neither whitespace nor a separator
+        }
+        return pos < lineLength;
+    }
+
+    private void skipWhitespace() {
+        while (pos < lineLength && (line[pos] == ' ' || line[pos] == '\t' || line[pos] == '\f')) {
+            pos++;
+        }
+    }
+
+    /**
+     * Parses the digits at the cursor. Numbers too large for an int stop growing just above `Integer.MAX_VALUE`
+     * instead of wrapping, so they are rejected as too large rather than read as some other number.
+     */
+    private long parseNumber() {
+        long value = 0;
+        while (pos < lineLength && isDigit(line[pos])) {
+            value = Math.min(value * 10 + (line[pos] - '0'), Integer.MAX_VALUE + 1L);
+            pos++;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a cell value, which has to be a whole (optionally signed) number like `Integer.parseInt` expects.
+     */
+    private int parseValue() {
+        int start = pos;
+        boolean negative = line[pos] == '-';
+        if (negative || line[pos] == '+') {
+            pos++;
+        }
+        if (pos == lineLength) {
+            throw invalidValue(start);
+        }
+        long value = parseNumber();
+        if (pos != lineLength || value > Integer.MAX_VALUE) {
+            throw invalidValue(start);
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private NumberFormatException invalidValue(int start) {
+        return new NumberFormatException("For input string: \"" + new String(line, start, lineLength - start) + "\"");
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private void setCell(long x, long y, int value) throws IOException {
+        if (x >= capacityX || y >= capacityY) {
+            long width = Math.max(capacityX, x + 1);
+            long height = Math.max(capacityY, y + 1);
+            checkSize(width, height);
+            // Double the size that has to grow, unless the doubled grid would be too large
+            long grownWidth = x >= capacityX ? Math.max(capacityX * 2L, width) : width;
+            long grownHeight = y >= capacityY ? Math.max(capacityY * 2L, height) : height;
+            if (grownWidth * grownHeight > MAX_CELLS) {
+                grownWidth = width;
+                grownHeight = height;
+            }
+            ensureCapacity((int) grownWidth, (int) grownHeight);
+        }
+        int cellX = (int) x;
+        int cellY = (int) y;
+        index.onCellChanged(cellX, cellY, cells[cellY * capacityX + cellX], (byte) value);
+        cells[cellY * capacityX + cellX] = (byte) value;
+        maxX = Math.max(maxX, cellX);
+        maxY = Math.max(maxY, cellY);
+    }
+
+    /**
+     * Grows the backing grid to at least the given size, filling new cells with the default value.
+     *
+     * @throws IOException If the grown grid would have more cells than an array can hold.
+     */
+    private void ensureCapacity(int width, int height) throws IOException {
+        if (width <= capacityX && height <= capacityY) {
+            return;
+        }
+        int newCapacityX = Math.max(width, capacityX);
+        int newCapacityY = Math.max(height, capacityY);
+        checkSize(newCapacityX, newCapacityY);
+        byte[] newCells = new byte[newCapacityX * newCapacityY];
+        Arrays.fill(newCells, DEFAULT_CELL);
+        for (int y = 0; y < capacityY; y++) {
+            System.arraycopy(cells, y * capacityX, newCells, y * newCapacityX, capacityX);
+        }
+        cells = newCells;
+        capacityX = newCapacityX;
+        capacityY = newCapacityY;
+    }
+
+    private static void checkSize(long width, long height) throws IOException {
+        if (width * height > MAX_CELLS) {
+            throw new IOException("A map of " + width + "x" + height + " cells is too large");
+        }
+    }
+
+    /**
+     * Copies the used part of the backing array into a grid.
+     */
+    private MazeGrid toGrid() {
+        int width = maxX + 1;
+        if (width == capacityX && maxY + 1 == capacityY) {
+            return new MazeGrid(width, capacityY, cells, index);
+        }
+        byte[] gridCells = new byte[width * (maxY + 1)];
+        for (int y = 0; y <= maxY; y++) {
+            System.arraycopy(cells, y * capacityX, gridCells, y * width, width);
+        }
+        return new MazeGrid(width, maxY + 1, gridCells, index);
+    }
+}
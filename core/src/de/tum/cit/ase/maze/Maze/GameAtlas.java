@@ -0,0 +1,131 @@
+package de.tum.cit.ase.maze.Maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * The `GameAtlas` class packs every sprite used while playing (tiles, keys, enemies, hearts and the character)
+ * into a single texture when the game starts. Since all of them share one texture, the sprite batch can draw
+ * the whole game view without flushing on texture switches.
+ * Only the parts of the sprite sheets that the game uses are packed.
+ */
+public class GameAtlas implements Disposable {
+
+    public static final String FLOOR = "floor";
+    public static final String WALL = "wall";
+    public static final String ENTRY = "entry";
+    public static final String EXIT = "exit";
+    public static final String TRAP = "trap";
+    public static final String KEY = "key";
+    public static final String ENEMY = "enemy";
+    public static final String HEART = "heart";
+
+    private static final String CHARACTER = "character";
+    private static final int CHARACTER_ROWS = 4;
+    private static final int CHARACTER_FRAMES = 4;
+    private static final int CHARACTER_FRAME_WIDTH = 16;
+    private static final int CHARACTER_FRAME_HEIGHT = 32;
+
+    // Large enough for all sprites, including the full-size trap, heart and key images, on one page
+    private static final int PAGE_SIZE = 2048;
+
+    private final TextureAtlas atlas;
+
+    /**
+     * Loads the sprite sheets and packs the sprites into one texture.
+     */
+    public GameAtlas() {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, true);
+
+        Pixmap tiles = loadPixmap("basictiles.png");
+        packRegion(packer, FLOOR, tiles, 48, 32, 16, 16);
+        packRegion(packer, WALL, tiles, 0, 0, 16, 16);
+        tiles.dispose();
+
+        Pixmap things = loadPixmap("things.png");
+        packRegion(packer, ENTRY, things, 0, 0, 16, 16);
+        packRegion(packer, EXIT, things, 48, 0, 16, 16);
+        things.dispose();
+
+        Pixmap mobs = loadPixmap("mobs.png");
+        packRegion(packer, ENEMY, mobs, 96, 64, 16, 16);
+        mobs.dispose();
+
+        packImage(packer, TRAP, "Trap.png");
+        packImage(packer, KEY, "icons8-key-200.png");
+        packImage(packer, HEART, "Heart.png");
+
+        Pixmap character = loadPixmap("character.png");
+        for (int row = 0; row < CHARACTER_ROWS; row++) {
+            for (int frame = 0; frame < CHARACTER_FRAMES; frame++) {
+                packRegion(packer, characterFrameName(row, frame), character, frame * CHARACTER_FRAME_WIDTH,
+                        row * CHARACTER_FRAME_HEIGHT, CHARACTER_FRAME_WIDTH, CHARACTER_FRAME_HEIGHT);
+            }
+        }
+        character.dispose();
+
+        atlas = packer.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        packer.dispose();
+    }
+
+    /**
+     * Retrieves a packed sprite.
+     *
+     * @param name One of the sprite names defined by this class, like `WALL` or `KEY`.
+     * @return The region of the sprite in the atlas.
+     */
+    public TextureRegion getRegion(String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            throw new GdxRuntimeException("No sprite named " + name + " in the game atlas");
+        }
+        return region;
+    }
+
+    /**
+     * Retrieves one frame of the character's walking animation.
+     *
+     * @param row   The row of the frame in "character.png": 0 down, 1 right, 2 up, 3 left.
+     * @param frame The frame within the row, from 0 to 3.
+     * @return The region of the frame in the atlas.
+     */
+    public TextureRegion getCharacterFrame(int row, int frame) {
+        return getRegion(characterFrameName(row, frame));
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+    }
+
+    private static String characterFrameName(int row, int frame) {
+        return CHARACTER + "-" + row + "-" + frame;
+    }
+
+    private static Pixmap loadPixmap(String fileName) {
+        return new Pixmap(Gdx.files.internal(fileName));
+    }
+
+    private static void packImage(PixmapPacker packer, String name, String fileName) {
+        Pixmap image = loadPixmap(fileName);
+        packer.pack(name, image);
+        image.dispose();
+    }
+
+    /**
+     * Copies a rectangle out of a sprite sheet and packs it.
+     */
+    private static void packRegion(PixmapPacker packer, String name, Pixmap sheet, int x, int y, int width, int height) {
+        Pixmap region = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        region.setBlending(Pixmap.Blending.None); // Copy the pixels as they are, transparency included
+        region.drawPixmap(sheet, 0, 0, x, y, width, height);
+        packer.pack(name, region);
+        region.dispose();
+    }
+}
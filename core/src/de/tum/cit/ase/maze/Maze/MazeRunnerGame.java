@@ -10,11 +10,22 @@
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import de.tum.cit.ase.maze.Map.LevelCache;
 import de.tum.cit.ase.maze.Map.MapDataHolder;
-import de.tum.cit.ase.maze.Map.MapLoader;
+import de.tum.cit.ase.maze.Map.MapWatcher;
+import de.tum.cit.ase.maze.Map.MazeMap;
 import de.tum.cit.ase.maze.Screens.*;
+import de.tum.cit.ase.maze.World.Replay;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * The MazeRunnerGame class represents the core of the Maze Runner game.
  * It manages the screens and global resources like SpriteBatch and Skin.
@@ -27,6 +38,9 @@ public class MazeRunnerGame extends Game {
     // Sprite Batch for rendering
     private SpriteBatch spriteBatch;
 
+    // All gameplay sprites packed into one texture
+    private GameAtlas atlas;
+
     // UI Skin
     private Skin skin;
 
@@ -41,6 +55,24 @@ public class MazeRunnerGame extends Game {
     private Sound gameOverSound;
     private GameScreen pausedGameScreen; // Variable to store the paused game screen
 
+    // Background thread for loading maps without blocking rendering
+    private ExecutorService mapLoadExecutor;
+
+    // Parsed levels kept in memory for restarts and the next level
+    private static final long LEVEL_CACHE_BYTES = 64L * 1024 * 1024;
+    // A level's text source saved this long after its binary file was generated has edits the binary lacks.
+    // Checking out the repository writes both files moments apart, in either order.
+    private static final long STALE_BINARY_MILLIS = 2000;
+    private final LevelCache levelCache = new LevelCache(LEVEL_CACHE_BYTES);
+    private String currentMapPath;
+    private int currentLevel; // 0 if the current map was picked in the menu
+
+    // Applies edits to the current map file while it is played; null if the file system cannot be watched
+    private MapWatcher mapWatcher;
+
+    // A recorded session to play instead of showing the menu when the game starts; null for the menu
+    private String startupReplayPath;
+
     /**
      * Constructor for MazeRunnerGame.
      *
@@ -56,6 +88,17 @@ public MazeRunnerGame(NativeFileChooser fileChooser) {
     @Override
     public void create() {
         spriteBatch = new SpriteBatch(); // Create SpriteBatch
+        atlas = new GameAtlas(); // Pack the gameplay sprites
+        mapLoadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "map-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            mapWatcher = new MapWatcher();
+        } catch (IOException e) {
+            Gdx.app.error("MapWatcher", "Map files will not be reloaded while playing", e);
+        }
         skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
         //this.loadCharacterAnimation(); // Load character animation
 
@@ -73,14 +116,132 @@ public void create() {
         keyCollectedSound = Gdx.audio.newSound(Gdx.files.internal("key.mp3"));
         victorySound = Gdx.audio.newSound(Gdx.files.internal("victory.mp3"));
         gameOverSound = Gdx.audio.newSound(Gdx.files.internal("gameOver.mp3"));
-        MapDataHolder.setSelectedMap(MapLoader.loadMap("maps/level-1.properties"));
+        loadMapForLevel(1);
 
-        goToMenu(); // Navigate to the menu screen
+        if (startupReplayPath != null) {
+            playStartupReplay();
+        } else {
+            goToMenu(); // Navigate to the menu screen
+        }
     }
 
+    /**
+     * Makes the game play a recorded session at normal speed when it starts, instead of showing the menu.
+     * Must be called before the game is created.
+     *
+     * @param replayPath The path of the replay file.
+     */
+    public void setStartupReplay(String replayPath) {
+        startupReplayPath = replayPath;
+    }
+
+    private void playStartupReplay() {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(startupReplayPath))) {
+            goToReplay(Replay.read(in));
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not read " + startupReplayPath, e);
+            goToMenu();
+        }
+    }
+
+    /**
+     * Selects the map of the given level, taking it from the level cache if it was parsed before.
+     * The following level is prefetched in the background while this one is played.
+     *
+     * @param level The number of the level to load.
+     */
     public void loadMapForLevel(int level) {
-        String mapPath = String.format("maps/level-%d.properties", level);
-        MapDataHolder.setSelectedMap(MapLoader.loadMap(mapPath));
+        String mapPath = getLevelPath(level);
+        MapDataHolder.setSelectedMap(levelCache.get(mapPath));
+        currentMapPath = mapPath;
+        currentLevel = level;
+        watchCurrentMap();
+        levelCache.prefetch(getLevelPath(level + 1), mapLoadExecutor);
+        Gdx.app.log("LevelCache", levelCache.toString());
+    }
+
+    /**
+     * Remembers a map that was picked and loaded in the menu, so restarting it can use the level cache.
+     *
+     * @param mapPath The path of the selected map file.
+     */
+    public void setSelectedMapPath(String mapPath) {
+        currentMapPath = mapPath;
+        currentLevel = 0;
+        watchCurrentMap();
+    }
+
+    /**
+     * @return The path of the map being played, or null if none was picked.
+     */
+    public String getCurrentMapPath() {
+        return currentMapPath;
+    }
+
+    /**
+     * @return True if the current map is a numbered level and the level after it exists.
+     */
+    public boolean hasNextLevel() {
+        return currentLevel > 0 && new File(getLevelPath(currentLevel + 1)).isFile();
+    }
+
+    /**
+     * Starts the current map again from a fresh copy, since playing it changes its cells.
+     */
+    public void restartLevel() {
+        if (currentLevel > 0) {
+            currentMapPath = getLevelPath(currentLevel); // The source may have been edited while playing
+        }
+        if (currentMapPath != null) {
+            MapDataHolder.setSelectedMap(levelCache.get(currentMapPath));
+            watchCurrentMap();
+        }
+        goToGame();
+    }
+
+    /**
+     * Loads the level after the current one and starts it.
+     */
+    public void goToNextLevel() {
+        loadMapForLevel(currentLevel + 1);
+        goToGame();
+    }
+
+    /**
+     * Points the map watcher at the selected map, so edits to its file show up in the running game.
+     */
+    private void watchCurrentMap() {
+        if (mapWatcher == null) {
+            return;
+        }
+        // A shipped level is played from its binary file, but edited in its text source
+        String watchedPath = currentMapPath;
+        if (currentLevel > 0 && new File(getLevelSourcePath(currentLevel)).isFile()) {
+            watchedPath = getLevelSourcePath(currentLevel);
+        }
+        mapWatcher.watch(watchedPath, MapDataHolder.getSelectedMap());
+    }
+
+    /**
+     * The shipped levels are converted to the binary ".maze" format with `MapConverter`, so they load
+     * without parsing text. A level is read from its ".properties" source if it has no binary file, or if the
+     * source was edited after the binary was generated, so edits made while playing survive a restart.
+     *
+     * @param level The number of the level.
+     * @return The path of the file to load the level from.
+     */
+    private static String getLevelPath(int level) {
+        String binaryPath = String.format("maps/level-%d.maze", level);
+        String sourcePath = getLevelSourcePath(level);
+        File binary = new File(binaryPath);
+        if (!binary.isFile() || new File(sourcePath).lastModified() > binary.lastModified() + STALE_BINARY_MILLIS) {
+            return sourcePath;
+        }
+        return binaryPath;
+    }
+
+    private static String getLevelSourcePath(int level) {
+        return String.format("maps/level-%d.properties", level);
     }
 
     public void resumeGame() {
@@ -165,6 +326,34 @@ public void goToGame() {
         }
     }
 
+    /**
+     * Plays a recorded session at normal speed on a fresh copy of its level.
+     * If the level cannot be loaded, for example because its file was moved, the menu is shown instead.
+     *
+     * @param replay The recorded session.
+     */
+    public void goToReplay(Replay replay) {
+        String levelId = replay.getLevelId();
+        MazeMap level = levelId.isEmpty() ? null : levelCache.get(levelId);
+        if (level == null) {
+            Gdx.app.error("Replay", "Could not load the level \"" + levelId + "\" of the replay");
+            goToMenu();
+            return;
+        }
+        MapDataHolder.setSelectedMap(level);
+        currentMapPath = levelId;
+        currentLevel = 0;
+        // Edits to the map file would make the replay go its own way, so it is not watched
+        if (mapWatcher != null) {
+            mapWatcher.watch(null, null);
+        }
+        this.setScreen(new GameScreen(this, replay));
+        if (menuScreen != null) {
+            menuScreen.dispose(); // Dispose the menu screen if it exists
+            menuScreen = null;
+        }
+    }
+
     /**
      * Cleans up resources when the game is disposed.
      */
@@ -174,6 +363,16 @@ public void dispose() {
         getScreen().dispose(); // Dispose the current screen
         spriteBatch.dispose(); // Dispose the spriteBatch
         skin.dispose(); // Dispose the skin
+        atlas.dispose(); // Dispose the packed sprites
+        mapLoadExecutor.shutdownNow(); // Cancel any map that is still loading
+        MapDataHolder.setSelectedMap(null); // Close the map that was played last
+        if (mapWatcher != null) {
+            try {
+                mapWatcher.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     // Getter methods
@@ -184,4 +383,12 @@ public Skin getSkin() {
     public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
+
+    public GameAtlas getAtlas() {
+        return atlas;
+    }
+
+    public ExecutorService getMapLoadExecutor() {
+        return mapLoadExecutor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package de.tum.cit.ase.maze.Maze;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Disposable;
+import de.tum.cit.ase.maze.Map.DirtyRegions;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import de.tum.cit.ase.maze.Map.MazeMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The `OverviewPyramid` class draws a whole maze as a small picture for the zoomed-out view.
+ * The finest level has one pixel per cell, colored by cell type, and every following level halves its size
+ * by averaging 2x2 pixels. When drawing, the level whose pixels are closest to one screen pixel is used,
+ * so a huge maze costs a single draw. Mazes too large for one texture start at a coarser level.
+ * Keys, enemies and the character are not part of the picture; they are drawn on top of it.
+ */
+public class OverviewPyramid implements Disposable {
+
+    private static final int CELL_SIZE = 16;
+    private static final int MAX_LEVEL_SIZE = 2048;
+
+    // RGBA colors of the cell types 0 to 6; keys (5) show the floor below them
+    private static final int[] CELL_COLORS = {
+            0x3b3b44ff, // Wall
+            0x3fbf4fff, // Entry
+            0x3f7fffff, // Exit
+            0xc83232ff, // Trap
+            0x9f3fbfff, // Enemy spawn
+            0xa89878ff, // Key
+            0xa89878ff  // Floor
+    };
+
+    private final MazeGrid grid;
+    // Every level covers blocks of 1 << (firstShift + level) cells per pixel
+    private final int firstShift;
+    private final Pixmap[] levels;
+    private final Texture[] textures;
+    private final boolean[] stale;
+
+    /**
+     * Builds all levels of the pyramid from the cells of a maze.
+     *
+     * @param grid The maze to draw.
+     */
+    public OverviewPyramid(MazeGrid grid) {
+        this.grid = grid;
+        int shift = 0;
+        while (levelSize(grid.getWidth(), shift) > MAX_LEVEL_SIZE || levelSize(grid.getHeight(), shift) > MAX_LEVEL_SIZE) {
+            shift++;
+        }
+        firstShift = shift;
+
+        int levelCount = 1;
+        while (levelSize(grid.getWidth(), shift) > 1 || levelSize(grid.getHeight(), shift) > 1) {
+            shift++;
+            levelCount++;
+        }
+        levels = new Pixmap[levelCount];
+        textures = new Texture[levelCount];
+        stale = new boolean[levelCount];
+
+        for (int level = 0; level < levelCount; level++) {
+            levels[level] = new Pixmap(levelSize(grid.getWidth(), firstShift + level),
+                    levelSize(grid.getHeight(), firstShift + level), Pixmap.Format.RGBA8888);
+        }
+        updateRegion(0, 0, grid.getWidth() - 1, grid.getHeight() - 1);
+        for (int level = 0; level < levelCount; level++) {
+            textures[level] = new Texture(levels[level]);
+            textures[level].setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            stale[level] = false;
+        }
+    }
+
+    /**
+     * @param map A maze.
+     * @return True if this pyramid was built for that maze.
+     */
+    public boolean isFor(MazeMap map) {
+        return grid == map;
+    }
+
+    /**
+     * Recolors the pixels of changed cells in every level. The textures are uploaded again when they are next drawn.
+     *
+     * @param dirty The rectangles of changed cells.
+     */
+    public void update(DirtyRegions dirty) {
+        for (int i = 0; i < dirty.getCount(); i++) {
+            updateRegion(dirty.getMinX(i), dirty.getMinY(i), dirty.getMaxX(i), dirty.getMaxY(i));
+        }
+    }
+
+    /**
+     * Draws the whole maze with the level that best fits the camera's zoom.
+     *
+     * @param batch The batch to draw with, between `begin` and `end`.
+     * @param zoom  The zoom of the camera; one cell covers 16 / zoom screen pixels.
+     */
+    public void render(Batch batch, float zoom) {
+        // Use the finest level whose pixels still cover at least one screen pixel
+        int level = 0;
+        while (level < levels.length - 1 && (CELL_SIZE << (firstShift + level)) < zoom) {
+            level++;
+        }
+        if (stale[level]) {
+            textures[level].draw(levels[level], 0, 0);
+            stale[level] = false;
+        }
+        float pixelSize = CELL_SIZE << (firstShift + level);
+        batch.draw(textures[level], 0, 0, levels[level].getWidth() * pixelSize, levels[level].getHeight() * pixelSize);
+    }
+
+    @Override
+    public void dispose() {
+        for (int level = 0; level < levels.length; level++) {
+            levels[level].dispose();
+            textures[level].dispose();
+        }
+    }
+
+    private static int levelSize(int cells, int shift) {
+        return ((cells - 1) >> shift) + 1;
+    }
+
+    /**
+     * Recomputes the pixels covering a rectangle of cells in every level.
+     */
+    private void updateRegion(int minX, int minY, int maxX, int maxY) {
+        int block = 1 << firstShift;
+        Pixmap finest = levels[0];
+        for (int y = minY / block; y <= maxY / block; y++) {
+            for (int x = minX / block; x <= maxX / block; x++) {
+                setPixel(finest, x, y, averageCells(x * block, y * block, block));
+            }
+        }
+        stale[0] = true;
+
+        for (int level = 1; level < levels.length; level++) {
+            int shift = firstShift + level;
+            Pixmap source = levels[level - 1];
+            for (int y = minY >> shift; y <= maxY >> shift; y++) {
+                for (int x = minX >> shift; x <= maxX >> shift; x++) {
+                    setPixel(levels[level], x, y, averagePixels(source, x * 2, y * 2));
+                }
+            }
+            stale[level] = true;
+        }
+    }
+
+    /**
+     * Averages the colors of a square block of cells, skipping the part of the block outside the maze.
+     */
+    private int averageCells(int firstX, int firstY, int block) {
+        byte[] cells = grid.getCells();
+        int width = grid.getWidth();
+        int lastX = Math.min(firstX + block, width);
+        int lastY = Math.min(firstY + block, grid.getHeight());
+        long r = 0, g = 0, b = 0, a = 0;
+        for (int y = firstY; y < lastY; y++) {
+            for (int x = firstX; x < lastX; x++) {
+                int color = colorOf(cells[y * width + x]);
+                r += color >>> 24;
+                g += (color >>> 16) & 0xff;
+                b += (color >>> 8) & 0xff;
+                a += color & 0xff;
+            }
+        }
+        int count = (lastX - firstX) * (lastY - firstY);
+        return (int) (r / count) << 24 | (int) (g / count) << 16 | (int) (b / count) << 8 | (int) (a / count);
+    }
+
+    /**
+     * Averages the 2x2 pixels of the finer level below one pixel, skipping pixels outside that level.
+     */
+    private static int averagePixels(Pixmap source, int firstX, int firstY) {
+        int r = 0, g = 0, b = 0, a = 0, count = 0;
+        for (int y = firstY; y < Math.min(firstY + 2, source.getHeight()); y++) {
+            for (int x = firstX; x < Math.min(firstX + 2, source.getWidth()); x++) {
+                int color = getPixel(source, x, y);
+                r += color >>> 24;
+                g += (color >>> 16) & 0xff;
+                b += (color >>> 8) & 0xff;
+                a += color & 0xff;
+                count++;
+            }
+        }
+        return (r / count) << 24 | (g / count) << 16 | (b / count) << 8 | (a / count);
+    }
+
+    private static int colorOf(int cellType) {
+        return cellType >= 0 && cellType < CELL_COLORS.length ? CELL_COLORS[cellType] : CELL_COLORS[6];
+    }
+
+    // Pixmap rows run from the top down, while maze rows run from the bottom up
+
+    private static void setPixel(Pixmap pixmap, int x, int y, int color) {
+        ByteBuffer pixels = pixmap.getPixels();
+        pixels.putInt(((pixmap.getHeight() - 1 - y) * pixmap.getWidth() + x) * 4, color);
+    }
+
+    private static int getPixel(Pixmap pixmap, int x, int y) {
+        ByteBuffer pixels = pixmap.getPixels();
+        return pixels.getInt(((pixmap.getHeight() - 1 - y) * pixmap.getWidth() + x) * 4);
+    }
+}
@@ -1,21 +1,21 @@
 package de.tum.cit.ase.maze.Maze;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Vector2;
-
-import java.util.List;
+import de.tum.cit.ase.maze.Map.LevelIndex;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import de.tum.cit.ase.maze.Map.MazeMap;
+import de.tum.cit.ase.maze.World.EnemyStore;
 
 
 /**
- * The `RenderMaze` class is responsible for rendering the maze based on the provided 2D array of cell types.
- * It loads necessary textures from sprite sheets and maps cell types to corresponding textures.
+ * The `RenderMaze` class is responsible for rendering the maze based on the provided map of cell types.
+ * It takes its textures from the game atlas and maps cell types to corresponding textures.
+ * Only the part of the maze around the camera is drawn, with the fixed tiles taken from a `StaticTileLayer`.
  */
 public class RenderMaze {
 
     private SpriteBatch spriteBatch;
-    private Texture spriteSheet;
 
     private TextureRegion wallTexture;
     private TextureRegion entryTexture;
@@ -25,57 +25,166 @@ public class RenderMaze {
     private TextureRegion keyTexture;
     private TextureRegion cellTexture;
 
-    private Texture keySheet;
-    private Texture mobSheet;
+    // Walls, floor and other fixed tiles, rendered once per chunk
+    private StaticTileLayer staticLayer;
+
+    // Whole-maze picture drawn instead of the tiles when zoomed far out; null for chunked maps
+    private OverviewPyramid overview;
+    private boolean useOverview;
+    private float zoom;
+
+    // Below this many screen pixels per cell, the overview is drawn instead of the tiles
+    private static final float OVERVIEW_CELL_PIXELS = 8;
+
+    // Sprites drawn and skipped by the last renderMaze call
+    private int drawnSprites;
+    private long culledSprites;
 
     /**
      * Constructor for creating a `RenderMaze` instance.
      *
      * @param spriteBatch The SpriteBatch used for rendering.
+     * @param atlas       The atlas holding the game's sprites.
      */
-    public RenderMaze(SpriteBatch spriteBatch) {
+    public RenderMaze(SpriteBatch spriteBatch, GameAtlas atlas) {
         this.spriteBatch = spriteBatch;
-        loadAssets();
+        loadAssets(atlas);
+    }
+
+    /**
+     * Looks up the necessary textures in the game atlas.
+     */
+    private void loadAssets(GameAtlas atlas) {
+        cellTexture = atlas.getRegion(GameAtlas.FLOOR);
+        wallTexture = atlas.getRegion(GameAtlas.WALL);
+        entryTexture = atlas.getRegion(GameAtlas.ENTRY);
+        exitTexture = atlas.getRegion(GameAtlas.EXIT);
+        trapTexture = atlas.getRegion(GameAtlas.TRAP);
+        keyTexture = atlas.getRegion(GameAtlas.KEY);
+        enemyTexture = atlas.getRegion(GameAtlas.ENEMY);
+        staticLayer = new StaticTileLayer(this);
+    }
+
+    /**
+     * Builds the zoomed-out overview of a maze, replacing the previous one.
+     * Chunked maps get no overview, since they are never held in memory as a whole.
+     *
+     * @param maze The map representing the maze with different cell types.
+     */
+    public void loadOverview(MazeMap maze) {
+        if (overview != null) {
+            overview.dispose();
+        }
+        overview = maze instanceof MazeGrid ? new OverviewPyramid((MazeGrid) maze) : null;
     }
 
     /**
-     * Loads the necessary textures from sprite sheets.
+     * Decides between the tiles and the overview for this frame, and brings both up to date with the cells that
+     * changed since the last frame. Visible chunks that are not rendered yet are rendered as well.
+     * Has to be called every frame before the sprite batch begins, since it draws into a frame buffer.
+     *
+     * @param maze   The map representing the maze with different cell types.
+     * @param minCol The leftmost visible column.
+     * @param minRow The lowest visible row.
+     * @param maxCol The rightmost visible column.
+     * @param maxRow The highest visible row.
+     * @param zoom   The zoom of the camera.
      */
-    private void loadAssets() {
-        spriteSheet = new Texture("basictiles.png");
-        keySheet = new Texture("things.png");
-        mobSheet = new Texture("mobs.png");
-        cellTexture = new TextureRegion(spriteSheet, 48, 32, 16, 16);
-        wallTexture = new TextureRegion(spriteSheet, 0, 0, 16, 16);
-        entryTexture = new TextureRegion(keySheet, 0, 0, 16, 16);
-        exitTexture = new TextureRegion(keySheet, 48, 0, 16, 16);
-        trapTexture = new TextureRegion(new Texture("Trap.png"));
-        keyTexture = new TextureRegion(new Texture("icons8-key-200.png"));
-        enemyTexture = new TextureRegion(mobSheet, 96, 64, 16, 16);
+    public void prepare(MazeMap maze, int minCol, int minRow, int maxCol, int maxRow, float zoom) {
+        minCol = Math.max(minCol, 0);
+        minRow = Math.max(minRow, 0);
+        maxCol = Math.min(maxCol, maze.getWidth() - 1);
+        maxRow = Math.min(maxRow, maze.getHeight() - 1);
+        this.zoom = zoom;
+        boolean hasOverview = overview != null && overview.isFor(maze);
+        if (hasOverview) {
+            overview.update(maze.getDirtyRegions());
+        }
+        // Switch to the overview once cells get tiny, or more chunks are visible than the static layer can hold
+        useOverview = hasOverview && (16 / zoom < OVERVIEW_CELL_PIXELS || !StaticTileLayer.fits(minCol, minRow, maxCol, maxRow));
+        if (useOverview) {
+            staticLayer.prepare(maze, 0, 0, -1, -1); // Nothing visible, but rendered chunks still take the changes
+        } else {
+            staticLayer.prepare(maze, minCol, minRow, maxCol, maxRow);
+        }
+        // Every cache has caught up with the changed cells now
+        maze.getDirtyRegions().clear();
     }
 
     /**
-     * Renders the maze based on the provided 2D array of cell types and the positions of enemies.
+     * Renders the given rectangle of the maze and the enemies inside it.
+     * Walls, floor and other fixed tiles come from the static tile layer, or from the overview when zoomed far out;
+     * only keys and enemies are drawn one by one.
+     * Everything outside the rectangle is skipped and counted as culled.
      *
-     * @param maze            The 2D array representing the maze with different cell types.
-     * @param enemyPositions  The list of enemy positions to be rendered.
+     * @param maze            The map representing the maze with different cell types.
+     * @param enemies         The enemies to be rendered.
+     * @param alpha           How far between the enemies' previous and current positions to draw them, from 0 to 1.
+     * @param minCol          The leftmost visible column.
+     * @param minRow          The lowest visible row.
+     * @param maxCol          The rightmost visible column.
+     * @param maxRow          The highest visible row.
      */
-    public void renderMaze(int[][] maze, List<Vector2> enemyPositions) {
-        for (int row = 0; row < maze.length; row++) {
-            for (int col = 0; col < maze[row].length; col++) {
-                TextureRegion renderTexture = getTextureForCell(maze[row][col]);
-                if (renderTexture != null) {
-                    float x = col * 16;
-                    float y = row * 16;
-                    spriteBatch.draw(renderTexture, x, y, 16, 16);
-                }
+    public void renderMaze(MazeMap maze, EnemyStore enemies, float alpha, int minCol, int minRow, int maxCol, int maxRow) {
+        minCol = Math.max(minCol, 0);
+        minRow = Math.max(minRow, 0);
+        maxCol = Math.min(maxCol, maze.getWidth() - 1);
+        maxRow = Math.min(maxRow, maze.getHeight() - 1);
+        if (useOverview) {
+            overview.render(spriteBatch, zoom);
+            drawnSprites = 1;
+            culledSprites = 0;
+        } else {
+            drawnSprites = staticLayer.render(spriteBatch, maze, minCol, minRow, maxCol, maxRow);
+            // The tile range comes straight from the camera, so the tiles outside it are counted rather than tested
+            long visibleCells = (long) Math.max(0, maxCol - minCol + 1) * Math.max(0, maxRow - minRow + 1);
+            culledSprites = (long) maze.getWidth() * maze.getHeight() - visibleCells;
+        }
+
+        // Keys are placed at runtime, so they are drawn on top of the static tiles from the map's index
+        LevelIndex index = maze.getIndex();
+        for (int i = 0; i < index.getCount(LevelIndex.KEY); i++) {
+            int col = index.getX(LevelIndex.KEY, i);
+            int row = index.getY(LevelIndex.KEY, i);
+            if (col >= minCol && col <= maxCol && row >= minRow && row <= maxRow) {
+                spriteBatch.draw(keyTexture, col * 16, row * 16, 16, 16);
+                drawnSprites++;
+            } else {
+                culledSprites++;
             }
         }
-        for (Vector2 enemyPosition : enemyPositions) {
-            spriteBatch.draw(enemyTexture, enemyPosition.x, enemyPosition.y, 16, 16);
+
+        // Enemies move freely, so their sprites are tested against the visible rectangle in pixels
+        float left = minCol * 16 - 16;
+        float bottom = minRow * 16 - 16;
+        float right = (maxCol + 1) * 16;
+        float top = (maxRow + 1) * 16;
+        for (int i = 0; i < enemies.size(); i++) {
+            float x = enemies.getDrawX(i, alpha);
+            float y = enemies.getDrawY(i, alpha);
+            if (x > left && x < right && y > bottom && y < top) {
+                spriteBatch.draw(enemyTexture, x, y, 16, 16);
+                drawnSprites++;
+            } else {
+                culledSprites++;
+            }
         }
     }
 
+    /**
+     * @return The number of sprites drawn by the last `renderMaze` call. A pre-rendered chunk counts as one sprite.
+     */
+    public int getDrawnSprites() {
+        return drawnSprites;
+    }
+
+    /**
+     * @return The number of tiles, keys and enemies skipped by the last `renderMaze` call because they were out of view.
+     */
+    public long getCulledSprites() {
+        return culledSprites;
+    }
+
     /**
      * Gets the appropriate texture for a given cell type.
      *
@@ -101,6 +210,17 @@ private TextureRegion getTextureForCell(int cellType) {
         }
     }
 
+    /**
+     * Gets the texture baked into the static tile layer for a cell type.
+     * Keys are left out, since they are drawn on top of the layer every frame.
+     *
+     * @param cellType The type of the cell in the maze.
+     * @return The TextureRegion of the cell, or null if nothing is baked for it.
+     */
+    TextureRegion getStaticTextureForCell(int cellType) {
+        return cellType == 5 ? null : getTextureForCell(cellType);
+    }
+
     /**
      * Retrieves the texture for the key item.
      *
@@ -111,11 +231,10 @@ public TextureRegion getKeyTexture() {
     }
 
     /**
-     * Disposes of the loaded textures to free up resources.
+     * Disposes of the static tile layer to free up resources. The textures belong to the game atlas.
      */
     public void dispose() {
-        if (spriteSheet != null) spriteSheet.dispose();
-        if (keySheet != null) keySheet.dispose();
-        if (mobSheet != null) mobSheet.dispose();
+        if (staticLayer != null) staticLayer.dispose();
+        if (overview != null) overview.dispose();
     }
 }
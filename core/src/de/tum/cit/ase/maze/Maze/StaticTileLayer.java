@@ -0,0 +1,321 @@
+package de.tum.cit.ase.maze.Maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntIntMap;
+import de.tum.cit.ase.maze.Map.DirtyRegions;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import de.tum.cit.ase.maze.Map.MazeMap;
+
+import java.util.Arrays;
+
+/**
+ * The `StaticTileLayer` class draws the fixed tiles of a maze (walls, floor, entry, exits, traps and enemy spawns)
+ * from pre-rendered images, so a frame costs one draw per visible chunk instead of one draw per cell.
+ * The maze is split into chunks of 32x32 cells. A chunk is rendered once into a slot of a shared frame buffer
+ * the first time it becomes visible, and slots are handed to other chunks in least-recently-used order.
+ * When cells of the maze change, only the changed cells of chunks that are already rendered are drawn again.
+ */
+public class StaticTileLayer implements Disposable {
+
+    private static final int CHUNK_CELLS = 32;
+    private static final int CELL_SIZE = 16;
+    private static final int CHUNK_PIXELS = CHUNK_CELLS * CELL_SIZE;
+    private static final int SLOTS_PER_SIDE = 4;
+    private static final int SLOTS = SLOTS_PER_SIDE * SLOTS_PER_SIDE;
+    private static final int BUFFER_PIXELS = SLOTS_PER_SIDE * CHUNK_PIXELS;
+
+    private final RenderMaze tiles;
+    private final FrameBuffer frameBuffer;
+    private final SpriteBatch bakeBatch;
+    private final TextureRegion[] slotRegions = new TextureRegion[SLOTS];
+
+    // Which chunk every slot holds (-1 if none), and the last frame it was drawn in
+    private final int[] slotChunks = new int[SLOTS];
+    private final long[] slotLastUsed = new long[SLOTS];
+    // The other way round: the slot of every rendered chunk, with primitive keys so looking up a chunk never allocates
+    private final IntIntMap chunkSlots = new IntIntMap(SLOTS * 2);
+    // Rectangles to draw into the frame buffer this frame, as slot, minCol, minRow, maxCol, maxRow
+    private int[] pendingDraws = new int[SLOTS * 5];
+    private int pendingCount;
+
+    private MazeMap bakedMaze;
+    private long frame;
+
+    /**
+     * Creates the frame buffer holding the rendered chunks.
+     *
+     * @param tiles The renderer providing the tile textures.
+     */
+    public StaticTileLayer(RenderMaze tiles) {
+        this.tiles = tiles;
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, BUFFER_PIXELS, BUFFER_PIXELS, false);
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            slotRegions[slot] = new TextureRegion(texture, (slot % SLOTS_PER_SIDE) * CHUNK_PIXELS,
+                    (slot / SLOTS_PER_SIDE) * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS);
+            slotRegions[slot].flip(false, true); // Frame buffer textures are stored upside down
+        }
+
+        bakeBatch = new SpriteBatch(CHUNK_CELLS * CHUNK_CELLS);
+        bakeBatch.getProjectionMatrix().setToOrtho2D(0, 0, BUFFER_PIXELS, BUFFER_PIXELS);
+        bakeBatch.disableBlending(); // Every pixel is written once, so the tiles' alpha is copied as is
+        invalidate();
+    }
+
+    /**
+     * Renders the visible chunks that are not rendered yet, and draws the cells that changed since the last frame
+     * again in the chunks that are. Has to be called outside of `SpriteBatch.begin` and `SpriteBatch.end`,
+     * since it draws into the frame buffer. The maze's dirty regions are read but not cleared.
+     *
+     * @param maze   The maze being drawn.
+     * @param minCol The leftmost visible column.
+     * @param minRow The lowest visible row.
+     * @param maxCol The rightmost visible column.
+     * @param maxRow The highest visible row.
+     */
+    public void prepare(MazeMap maze, int minCol, int minRow, int maxCol, int maxRow) {
+        int chunksX = (maze.getWidth() + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        pendingCount = 0;
+        if (maze != bakedMaze) {
+            invalidate();
+            bakedMaze = maze;
+        } else {
+            addDirtyCells(maze.getDirtyRegions(), chunksX);
+        }
+        frame++;
+
+        assignSlots(chunksX, minCol, minRow, maxCol, maxRow);
+        if (pendingCount > 0) {
+            drawPending(maze);
+        }
+    }
+
+    /**
+     * Draws the static tiles of the visible part of the maze.
+     *
+     * @param batch  The batch to draw with, between `begin` and `end`.
+     * @param maze   The maze being drawn, as passed to `prepare` this frame.
+     * @param minCol The leftmost visible column.
+     * @param minRow The lowest visible row.
+     * @param maxCol The rightmost visible column.
+     * @param maxRow The highest visible row.
+     * @return The number of sprites drawn.
+     */
+    public int render(Batch batch, MazeMap maze, int minCol, int minRow, int maxCol, int maxRow) {
+        if (minCol > maxCol || minRow > maxRow) {
+            return 0;
+        }
+        int drawn = 0;
+        int chunksX = (maze.getWidth() + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        for (int chunkY = minRow / CHUNK_CELLS; chunkY <= maxRow / CHUNK_CELLS; chunkY++) {
+            for (int chunkX = minCol / CHUNK_CELLS; chunkX <= maxCol / CHUNK_CELLS; chunkX++) {
+                int slot = chunkSlots.get(chunkY * chunksX + chunkX, -1);
+                if (slot >= 0) {
+                    batch.draw(slotRegions[slot], chunkX * CHUNK_PIXELS, chunkY * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS);
+                    drawn++;
+                } else {
+                    drawn += drawCells(batch, maze, Math.max(minCol, chunkX * CHUNK_CELLS), Math.max(minRow, chunkY * CHUNK_CELLS),
+                            Math.min(maxCol, chunkX * CHUNK_CELLS + CHUNK_CELLS - 1),
+                            Math.min(maxRow, chunkY * CHUNK_CELLS + CHUNK_CELLS - 1), 0, 0);
+                }
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Checks whether a view is small enough for all of its chunks to be rendered at once.
+     *
+     * @param minCol The leftmost visible column.
+     * @param minRow The lowest visible row.
+     * @param maxCol The rightmost visible column.
+     * @param maxRow The highest visible row.
+     * @return True if the visible chunks fit into the frame buffer.
+     */
+    public static boolean fits(int minCol, int minRow, int maxCol, int maxRow) {
+        long chunks = (long) (maxCol / CHUNK_CELLS - minCol / CHUNK_CELLS + 1) * (maxRow / CHUNK_CELLS - minRow / CHUNK_CELLS + 1);
+        return chunks <= SLOTS;
+    }
+
+    /**
+     * Forgets all rendered chunks, so they are rendered again when they are next visible.
+     */
+    public void invalidate() {
+        chunkSlots.clear();
+        Arrays.fill(slotChunks, -1);
+        Arrays.fill(slotLastUsed, 0);
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+        bakeBatch.dispose();
+    }
+
+    private int leastRecentlyUsedSlot() {
+        int oldest = 0;
+        for (int slot = 1; slot < SLOTS; slot++) {
+            if (slotLastUsed[slot] < slotLastUsed[oldest]) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Gives every visible chunk a slot, queueing the chunks that are not rendered yet.
+     */
+    private void assignSlots(int chunksX, int minCol, int minRow, int maxCol, int maxRow) {
+        if (minCol > maxCol || minRow > maxRow) {
+            return; // The camera is outside of the maze
+        }
+        for (int chunkY = minRow / CHUNK_CELLS; chunkY <= maxRow / CHUNK_CELLS; chunkY++) {
+            for (int chunkX = minCol / CHUNK_CELLS; chunkX <= maxCol / CHUNK_CELLS; chunkX++) {
+                int chunk = chunkY * chunksX + chunkX;
+                int slot = chunkSlots.get(chunk, -1);
+                if (slot < 0) {
+                    slot = leastRecentlyUsedSlot();
+                    if (slotLastUsed[slot] == frame) {
+                        continue; // More chunks are visible than there are slots; render will draw this one cell by cell
+                    }
+                    if (slotChunks[slot] >= 0) {
+                        chunkSlots.remove(slotChunks[slot], -1);
+                        cancelPendingDraws(slot);
+                    }
+                    slotChunks[slot] = chunk;
+                    chunkSlots.put(chunk, slot);
+                    // Cover the whole slot, so nothing of the chunk it held before is left at the maze's edges
+                    addPendingDraw(slot, chunkX * CHUNK_CELLS, chunkY * CHUNK_CELLS,
+                            chunkX * CHUNK_CELLS + CHUNK_CELLS - 1, chunkY * CHUNK_CELLS + CHUNK_CELLS - 1);
+                }
+                slotLastUsed[slot] = frame;
+            }
+        }
+    }
+
+    /**
+     * Queues the changed cells of every rendered chunk to be drawn again. Chunks that are not rendered
+     * are skipped, since they are rendered from the current cells when they become visible.
+     */
+    private void addDirtyCells(DirtyRegions dirty, int chunksX) {
+        for (int i = 0; i < dirty.getCount(); i++) {
+            int minCol = dirty.getMinX(i);
+            int minRow = dirty.getMinY(i);
+            int maxCol = dirty.getMaxX(i);
+            int maxRow = dirty.getMaxY(i);
+            for (int chunkY = minRow / CHUNK_CELLS; chunkY <= maxRow / CHUNK_CELLS; chunkY++) {
+                for (int chunkX = minCol / CHUNK_CELLS; chunkX <= maxCol / CHUNK_CELLS; chunkX++) {
+                    int slot = chunkSlots.get(chunkY * chunksX + chunkX, -1);
+                    if (slot >= 0) {
+                        addPendingDraw(slot, Math.max(minCol, chunkX * CHUNK_CELLS), Math.max(minRow, chunkY * CHUNK_CELLS),
+                                Math.min(maxCol, chunkX * CHUNK_CELLS + CHUNK_CELLS - 1),
+                                Math.min(maxRow, chunkY * CHUNK_CELLS + CHUNK_CELLS - 1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void addPendingDraw(int slot, int minCol, int minRow, int maxCol, int maxRow) {
+        if (pendingCount + 5 > pendingDraws.length) {
+            pendingDraws = Arrays.copyOf(pendingDraws, pendingDraws.length * 2);
+        }
+        pendingDraws[pendingCount++] = slot;
+        pendingDraws[pendingCount++] = minCol;
+        pendingDraws[pendingCount++] = minRow;
+        pendingDraws[pendingCount++] = maxCol;
+        pendingDraws[pendingCount++] = maxRow;
+    }
+
+    /**
+     * Drops the changed cells queued for a slot that is handed to another chunk.
+     */
+    private void cancelPendingDraws(int slot) {
+        for (int i = 0; i < pendingCount; i += 5) {
+            if (pendingDraws[i] == slot) {
+                pendingDraws[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * Clears the pending rectangles in their slots of the frame buffer and draws their cells again.
+     */
+    private void drawPending(MazeMap maze) {
+        frameBuffer.begin();
+
+        // Clear only the pending rectangles; the rest of the frame buffer keeps its chunks
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+        for (int i = 0; i < pendingCount; i += 5) {
+            int slot = pendingDraws[i];
+            if (slot < 0) {
+                continue;
+            }
+            int minCol = pendingDraws[i + 1];
+            int minRow = pendingDraws[i + 2];
+            Gdx.gl.glScissor(slotX(slot) + (minCol % CHUNK_CELLS) * CELL_SIZE, slotY(slot) + (minRow % CHUNK_CELLS) * CELL_SIZE,
+                    (pendingDraws[i + 3] - minCol + 1) * CELL_SIZE, (pendingDraws[i + 4] - minRow + 1) * CELL_SIZE);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        }
+        Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+
+        bakeBatch.begin();
+        for (int i = 0; i < pendingCount; i += 5) {
+            int slot = pendingDraws[i];
+            if (slot < 0) {
+                continue;
+            }
+            int minCol = pendingDraws[i + 1];
+            int minRow = pendingDraws[i + 2];
+            int firstCol = minCol - minCol % CHUNK_CELLS;
+            int firstRow = minRow - minRow % CHUNK_CELLS;
+            drawCells(bakeBatch, maze, minCol, minRow,
+                    Math.min(pendingDraws[i + 3], maze.getWidth() - 1), Math.min(pendingDraws[i + 4], maze.getHeight() - 1),
+                    slotX(slot) - firstCol * CELL_SIZE, slotY(slot) - firstRow * CELL_SIZE);
+        }
+        bakeBatch.end();
+
+        frameBuffer.end();
+        pendingCount = 0;
+    }
+
+    private static int slotX(int slot) {
+        return (slot % SLOTS_PER_SIDE) * CHUNK_PIXELS;
+    }
+
+    private static int slotY(int slot) {
+        return (slot / SLOTS_PER_SIDE) * CHUNK_PIXELS;
+    }
+
+    /**
+     * Draws the static tiles of a rectangle of cells, shifted by the given offset in pixels.
+     *
+     * @return The number of tiles drawn.
+     */
+    private int drawCells(Batch batch, MazeMap maze, int minCol, int minRow, int maxCol, int maxRow, float offsetX, float offsetY) {
+        byte[] cells = maze instanceof MazeGrid ? ((MazeGrid) maze).getCells() : null;
+        int drawn = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            int rowStart = row * maze.getWidth();
+            for (int col = minCol; col <= maxCol; col++) {
+                int cellType = cells != null ? cells[rowStart + col] : maze.getCell(col, row);
+                TextureRegion texture = tiles.getStaticTextureForCell(cellType);
+                if (texture != null) {
+                    batch.draw(texture, offsetX + col * CELL_SIZE, offsetY + row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+                    drawn++;
+                }
+            }
+        }
+        return drawn;
+    }
+}
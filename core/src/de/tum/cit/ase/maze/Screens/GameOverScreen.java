@@ -61,7 +61,7 @@ public GameOverScreen(MazeRunnerGame game) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // Restart the game when the button is clicked
-                game.goToGame();
+                game.restartLevel();
             }
         });
 
@@ -3,96 +3,130 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ScreenUtils;
 import de.tum.cit.ase.maze.Character.Character;
 import de.tum.cit.ase.maze.Character.CharacterAnimation;
+import de.tum.cit.ase.maze.Map.ChunkedMap;
 import de.tum.cit.ase.maze.Map.MapDataHolder;
+import de.tum.cit.ase.maze.Map.MazeMap;
+import de.tum.cit.ase.maze.Maze.GameAtlas;
 import de.tum.cit.ase.maze.Maze.MazeRunnerGame;
 import de.tum.cit.ase.maze.Maze.RenderMaze;
+import de.tum.cit.ase.maze.World.GameEvent;
+import de.tum.cit.ase.maze.World.GameEventQueue;
+import de.tum.cit.ase.maze.World.GameWorld;
+import de.tum.cit.ase.maze.World.InputState;
+import de.tum.cit.ase.maze.World.Replay;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
- * It handles the game logic and rendering of the game elements.
+ * The rules of the game live in a `GameWorld`; this screen feeds it the keyboard input,
+ * draws it, and plays sounds and switches screens for the events the world reported, once the frame is drawn.
  */
-public class GameScreen implements Screen {
+public class GameScreen implements Screen, GameEventQueue.Consumer {
 
     private final MazeRunnerGame game;
     private final OrthographicCamera camera;
     private final BitmapFont font;
-    private Vector2 currentLocation;
-    private static final float HEART_LOSS_COOLDOWN = 2.0f;
-    private float heartLossCooldownTimer = 0.0f;
-    private Map<Vector2, Float> enemyCooldowns = new HashMap<>();
 
-    private int[][] maze ;
+    private MazeMap maze;
+    private GameWorld world;
+    // What the world reported during this frame's steps, handled after the frame is drawn
+    private final GameEventQueue events = new GameEventQueue();
     private RenderMaze renderMaze;
-    private Character character;
     private boolean isPaused = false; // Add a flag to track if the game is paused
 
     private CharacterAnimation characterAnimation;
 
-    // Define a variable to keep track of the character's state time
-    private float stateTime = 0f;
-
     private TextureRegion heartTexture;
-    private boolean[] heartsStatus;
-    private int numberOfHearts = 3;
-    private boolean hasKey = false;
-    private float elapsedTime = 0f;
-    private List<Vector2> enemyPositions;
-    private static final float ENEMY_SPEED = 20.0f;
-    private List<Vector2> heartPositions;
+    private final InputState input = new InputState();
+
+    // Every session is recorded; a replayed session takes its input from the recording instead of the keyboard
+    private final Replay recording;
+    private final Replay.Player playback;
+    private boolean isRecordingSaved = false;
 
     private int moveAmountX = 0;
     private int moveAmountY = 0;
 
+    // The cells visible through the camera this frame
+    private int visibleMinCol;
+    private int visibleMinRow;
+    private int visibleMaxCol;
+    private int visibleMaxRow;
+
+    private static final float RENDER_STATS_INTERVAL = 5.0f;
+    private float renderStatsTimer = 0f;
+    private final RenderStatsOverlay renderStatsOverlay;
+
     private final OrthographicCamera uiCamera;
 
-    private static final float CHARACTER_SPEED = 0.1f;
+    // The game is simulated in fixed steps, so it runs at the same speed whatever the frame rate
+    private static final float SIMULATION_STEP = 1 / 120f;
+    // After a long stall, at most this many steps are caught up in one frame; the rest of the stall is skipped
+    private static final int MAX_STEPS_PER_FRAME = 15;
+    private float unsimulatedTime = 0f;
+
+    // Positions before the last simulation step. Frames are drawn in between them and the current positions,
+    // so movement looks smooth when the frame rate and the simulation rate differ. The enemy store keeps its own.
+    private final Vector2 previousCharacterPosition = new Vector2();
+    private final Vector2 drawnCharacterPosition = new Vector2();
+    private float drawAlpha = 1f;
 
     private float zoomLevel = 1.0f;
 
     /**
-     * Constructor for GameScreen. Sets up the camera and font.
+     * Constructor for GameScreen. Sets up the world, the camera and font.
      *
      * @param game The main game class, used to access global resources and methods.
      */
     public GameScreen(MazeRunnerGame game) {
+        this(game, null);
+    }
+
+    /**
+     * Constructor for a GameScreen that plays a recorded session at normal speed instead of reading the keyboard.
+     *
+     * @param game   The main game class, used to access global resources and methods.
+     * @param replay The session to play, or null to play with the keyboard and record the session.
+     */
+    public GameScreen(MazeRunnerGame game, Replay replay) {
         this.game = game;
+        if (replay == null) {
+            String levelId = game.getCurrentMapPath() != null ? game.getCurrentMapPath() : "";
+            recording = new Replay(levelId, System.nanoTime(), Math.round(1 / SIMULATION_STEP));
+            playback = null;
+        } else {
+            recording = null;
+            playback = replay.play();
+        }
         this.maze = MapDataHolder.getSelectedMap();
-        this.renderMaze = new RenderMaze(game.getSpriteBatch());
-        characterAnimation = new CharacterAnimation();
-        heartPositions = new ArrayList<>();
-        enemyPositions = new ArrayList<>();
+        this.world = new GameWorld(maze, events);
+        this.renderMaze = new RenderMaze(game.getSpriteBatch(), game.getAtlas());
+        renderMaze.loadOverview(maze);
+        renderStatsOverlay = new RenderStatsOverlay();
+        characterAnimation = new CharacterAnimation(game.getAtlas());
 
         // Initialize the UI camera
         uiCamera = new OrthographicCamera();
         uiCamera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
-        heartTexture = new TextureRegion(new Texture("Heart.png"));
-        heartsStatus = new boolean[numberOfHearts];
-        for (int i = 0; i < numberOfHearts; i++) {
-            heartsStatus[i] = true; // All hearts are initially active
-        }
+        heartTexture = game.getAtlas().getRegion(GameAtlas.HEART);
 
         game.getBackgroundMusicGame().play();
         game.getBackgroundMusic().dispose();
 
-
-        Vector2 entryPoint = findEntryPoint(maze);
-        this.currentLocation = entryPoint; // Use the entry point as the current location
-        this.character = new Character(entryPoint.x * 16, entryPoint.y * 16, this);
-        initializeEnemies();
+        previousCharacterPosition.set(world.getCharacter().getPosition());
+        drawnCharacterPosition.set(world.getCharacter().getPosition());
 
         // Create and configure the camera for the game view
         camera = new OrthographicCamera();
@@ -104,35 +138,6 @@ public GameScreen(MazeRunnerGame game) {
         font = game.getSkin().getFont("font");
     }
 
-    private void initializeEnemies() {
-        for (int row = 0; row < maze.length; row++) {
-            for (int col = 0; col < maze[row].length; col++) {
-                if (maze[row][col] == 4) { // Assuming '4' is the cell type for enemies
-                    enemyPositions.add(new Vector2(col * 16, row * 16));
-                }
-            }
-        }
-    }
-
-
-    /**
-     * Find the entry point in the maze.
-     *
-     * @param maze The 2D array representing the maze.
-     * @return The entry point as a Vector2.
-     */
-    private Vector2 findEntryPoint(int[][] maze) {
-        for (int row = 0; row < maze.length; row++) {
-            for (int col = 0; col < maze[row].length; col++) {
-                if (maze[row][col] == 1) {
-                    // Return the position directly, assuming bottom left as 0,0
-                    return new Vector2(col, row);
-                }
-            }
-        }
-        return new Vector2(0, 0); // Default to (0,0) if no entry point is found
-    }
-
     /**
      * Sets the game's pause state.
      *
@@ -167,13 +172,17 @@ public void render(float delta) {
             zoomIn(); // Call the zoomIn method
         }
 
+        // Check for the "F3" key press to show or hide the render stats
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            renderStatsOverlay.toggle();
+        }
+
         if (isPaused) {
             // Render the pause menu UI, e.g., display a "Resume" button
             game.pauseGame(this);
         } else {
             ScreenUtils.clear(0, 0, 0, 1); // Clear the screen
             camera.update(); // Update the camera
-            moveEnemies(character.getPosition(), delta);
 
             // Reset movement amounts at the start of each frame
             moveAmountX = 0;
@@ -191,35 +200,55 @@ public void render(float delta) {
                 moveAmountX = 1;
             }
 
-            // Update the direction based on the most recent movement
-            if (moveAmountX != 0 || moveAmountY != 0) {
-                character.updateDirection(determineDirection(moveAmountX, moveAmountY));
+            // The world reads the keys held this frame through the input state
+            input.setMove(moveAmountX, moveAmountY);
+
+            // Simulate the time that passed since the last frame in fixed steps
+            unsimulatedTime += delta;
+            int steps = 0;
+            while (unsimulatedTime >= SIMULATION_STEP && steps < MAX_STEPS_PER_FRAME) {
+                simulate(SIMULATION_STEP);
+                unsimulatedTime -= SIMULATION_STEP;
+                steps++;
+                if (world.isFinished()) {
+                    break; // The world does not change anymore; the screen changes after this frame
+                }
+            }
+            if (steps == MAX_STEPS_PER_FRAME) {
+                unsimulatedTime %= SIMULATION_STEP;
             }
-
-            // Move the character
-            moveCharacter(moveAmountX, moveAmountY, delta);
 
             // Update animation state time
             characterAnimation.update(delta);
-            stateTime += delta;
-            elapsedTime += delta; // Update the elapsed time
 
-            // Update character position and camera position to follow the character
-            Vector2 characterPosition = character.getPosition();
+            // Draw everything part of the way from the previous step to the last one
+            interpolatePositions(unsimulatedTime / SIMULATION_STEP);
+
+            // Update camera position to follow the character
+            Vector2 characterPosition = drawnCharacterPosition;
             camera.position.set(characterPosition.x, characterPosition.y, 0);
             camera.update();
             game.getSpriteBatch().setProjectionMatrix(camera.combined);
 
+            // Render the walls and floor that came into view before the batch starts drawing
+            renderStatsOverlay.beginFrame(game.getSpriteBatch());
+            updateVisibleCells();
+            // The enemies in view are kept up to date for drawing from the next step on
+            world.setView(visibleMinCol * 16, visibleMinRow * 16, (visibleMaxCol + 1) * 16, (visibleMaxRow + 1) * 16);
+            renderMaze.prepare(maze, visibleMinCol, visibleMinRow, visibleMaxCol, visibleMaxRow, camera.zoom);
+
             // Begin drawing game elements
             game.getSpriteBatch().begin();
 
             // Draw game elements (maze, character, etc.)
-            renderMaze.renderMaze(maze, enemyPositions);
-            Character.Direction characterDirection = character.getCurrentDirection(); // Use the current direction
+            renderMaze.renderMaze(maze, world.getEnemies(), drawAlpha, visibleMinCol, visibleMinRow, visibleMaxCol, visibleMaxRow);
+            logRenderStats(delta);
+            Character.Direction characterDirection = world.getCharacter().getCurrentDirection(); // Use the current direction
             characterAnimation.render(game.getSpriteBatch(), characterDirection, characterPosition.x, characterPosition.y);
 
             // End drawing game elements
             game.getSpriteBatch().end();
+            renderStatsOverlay.endWorldPass(game.getSpriteBatch(), renderMaze);
 
             // Start drawing UI elements
             uiCamera.update();
@@ -232,284 +261,157 @@ public void render(float delta) {
             float uiYOffset = Gdx.graphics.getHeight() - 70; // Adjust Y offset for the new heart size
 
             // Draw the hearts
-            for (int i = 0; i < numberOfHearts; i++) {
+            boolean[] heartsStatus = world.getHeartsStatus();
+            for (int i = 0; i < heartsStatus.length; i++) {
                 if (heartsStatus[i]) {
                     game.getSpriteBatch().draw(heartTexture, uiXOffset + i * heartSize, uiYOffset, heartSize, heartSize);
                 }
             }
 
             // Draw the key if the character has it
-            if (hasKey) {
+            if (world.hasKey()) {
                 game.getSpriteBatch().draw(renderMaze.getKeyTexture(), uiXOffset + 3 * heartSize, uiYOffset, heartSize, heartSize);
             }
 
             // End drawing UI elements
             game.getSpriteBatch().end();
-        }
-    }
-
-    /**
-     * Determines the character's direction based on the movement inputs.
-     *
-     * @param moveAmountX The change in the x-coordinate.
-     * @param moveAmountY The change in the y-coordinate.
-     * @return The character's direction.
-     */
-    private Character.Direction determineDirection(int moveAmountX, int moveAmountY) {
-        if (moveAmountX > 0) {
-            return Character.Direction.RIGHT;
-        } else if (moveAmountX < 0) {
-            return Character.Direction.LEFT;
-        } else if (moveAmountY > 0) {
-            return Character.Direction.UP;
-        } else if (moveAmountY < 0) {
-            return Character.Direction.DOWN;
-        }
-        return character.getCurrentDirection(); // Default to current direction if no movement
-    }
+            renderStatsOverlay.recordEnemyTiers(world);
+            renderStatsOverlay.endFrame(game.getSpriteBatch());
 
+            // Draw the render stats after the frame is measured, so they do not count themselves
+            renderStatsOverlay.render(game.getSpriteBatch(), font, Gdx.graphics.getHeight());
 
-    /**
-     * Handles the logic for heart loss and cooldown.
-     */
-    private void handleHeartLoss() {
-        // Implement logic to handle heart loss
-        // Subtract one heart, play a sound, update the UI, etc.
-        if (heartsStatus[0]) {
-            heartsStatus[0] = false;
-        } else if (heartsStatus[1]) {
-            heartsStatus[1] = false;
-        } else if (heartsStatus[2]) {
-            heartsStatus[2] = false;
-            game.getGameOverSound().play();
-            game.goToOver();
+            // Play the sounds and change the screen for this frame's events; this screen may be disposed after this
+            events.drain(this);
         }
     }
 
     /**
-     * Moves the character by the specified delta values if the destination is not a wall.
+     * Advances the world by one fixed step with the keys held this frame, remembering where everything was before.
      *
-     * @param moveDirectionX The change in the x-coordinate.
-     * @param moveDirectionY The change in the y-coordinate.
-     * @param delta          The time in seconds since the last update.
+     * @param step The length of the step in seconds.
      */
-    private void moveCharacter(int moveDirectionX, int moveDirectionY, float delta) {
-        // Scale movement by speed
-        float scaledMoveX = moveDirectionX * CHARACTER_SPEED;
-        float scaledMoveY = moveDirectionY * CHARACTER_SPEED;
-
-        // Calculate the next position
-        float nextX = currentLocation.x + scaledMoveX;
-        float nextY = currentLocation.y + scaledMoveY;
-
-        // Check if the new position is within the maze bounds
-        if (nextX >= 0 && nextX < maze[0].length && nextY >= 0 && nextY < maze.length) {
-            // Check the type of the next block before moving
-            int nextBlockType = maze[(int) nextY][(int) nextX];
-
-            // Perform different actions based on the next block type
-            switch (nextBlockType) {
-                case 0: // Wall - Do nothing
-                    break;
-
-                case 1: // Default - Move the character
-                case 3: // Trap - Lose a heart
-                case 4: // Enemy - Lose a heart
-                case 5: // Key - Pick up the key
-                case 2: // Exit - Win the game
-                    // Update the current location and character position
-                    currentLocation.x = nextX;
-                    currentLocation.y = nextY;
-                    character.getPosition().x = currentLocation.x * 16;
-                    character.getPosition().y = currentLocation.y * 16;
-                    updateCharacterDirection(moveDirectionX, moveDirectionY);
-
-                    if (nextBlockType == 3 || nextBlockType == 4) {
-                        handleInteraction(delta);
-                    }
-                    if (nextBlockType == 5) {
-                        handleKeyPickup();
-                    }
-                    if (nextBlockType == 2 && hasKey) {
-                        goToWinScreen();
-                    }
-                    break;
-
-                default:
-                    // If it's not a special block, move the character normally
-                    currentLocation.x = nextX;
-                    currentLocation.y = nextY;
-                    character.getPosition().x = currentLocation.x * 16;
-                    character.getPosition().y = currentLocation.y * 16;
-                    break;
-            }
-        }
-    }
-
-    private void handleInteraction(float delta) {
-        if (heartLossCooldownTimer <= 0) {
-            game.getLifeLostSound().play();
-            handleHeartLoss(); // Handle heart loss logic
-            heartLossCooldownTimer = HEART_LOSS_COOLDOWN;
-        } else {
-            heartLossCooldownTimer -= delta;
+    private void simulate(float step) {
+        previousCharacterPosition.set(world.getCharacter().getPosition());
+        world.getEnemies().savePreviousPositions();
+
+        if (playback == null) {
+            recording.record(input);
+        } else if (!playback.next(input)) {
+            // The recording has ended; keep showing its last state
+            return;
         }
-    }
-
-    private void handleKeyPickup() {
-        game.getKeyCollectedSound().play();
-        hasKey = true;
-        addNewKey(maze);
+        world.step(input, step);
     }
 
     /**
-     * Updates the character's direction based on movement.
+     * Places the drawn character and enemies between their positions before and after the last step.
      *
-     * @param deltaX The change in the x-coordinate.
-     * @param deltaY The change in the y-coordinate.
+     * @param alpha How far the frame is into the next step, from 0 (the previous step) to 1 (the last step).
      */
-    private void updateCharacterDirection(float deltaX, float deltaY) {
-        if (deltaX > 0) {
-            character.updateDirection(Character.Direction.RIGHT);
-        } else if (deltaX < 0) {
-            character.updateDirection(Character.Direction.LEFT);
-        } else if (deltaY > 0) {
-            character.updateDirection(Character.Direction.UP);
-        } else if (deltaY < 0) {
-            character.updateDirection(Character.Direction.DOWN);
-        }
+    private void interpolatePositions(float alpha) {
+        drawnCharacterPosition.set(previousCharacterPosition).lerp(world.getCharacter().getPosition(), alpha);
+        drawAlpha = alpha; // The enemies are placed while they are drawn
     }
 
     /**
-     * Moves enemies towards the player or applies cooldowns if they hit the player.
+     * Plays the sound for an event of this frame, or navigates to the game over or win screen.
+     * Events of the same type in one frame arrive merged, so each sound plays at most once per frame.
      *
-     * @param playerPosition The player's position.
-     * @param delta          The time in seconds since the last update.
+     * @param event What happened during the frame.
      */
-    private void moveEnemies(Vector2 playerPosition, float delta) {
-        for (Vector2 enemyPosition : enemyPositions) {
-            float deltaX = playerPosition.x - enemyPosition.x;
-            float deltaY = playerPosition.y - enemyPosition.y;
-
-            float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-
-            // Check if the enemy has an active cooldown
-            if (enemyCooldowns.containsKey(enemyPosition)) {
-                float cooldownTimer = enemyCooldowns.get(enemyPosition);
-                if (cooldownTimer <= 0) {
-                    // Cooldown has elapsed, reset it
-                    enemyCooldowns.remove(enemyPosition);
-                } else {
-                    // Decrement the cooldown timer and skip the enemy movement
-                    enemyCooldowns.put(enemyPosition, cooldownTimer - delta);
-                    continue;
-                }
-            }
-
-            if (distance < 20) {  // Adjust the value based on your collision criteria
-                // Enemy hits the character, apply logic here
+    @Override
+    public void onEvent(GameEvent event) {
+        switch (event.getType()) {
+            case TRAP_HIT:
+            case ENEMY_HIT:
                 game.getLifeLostSound().play();
-                handleHeartLoss();  // Handle heart loss logic
-
-                // Apply the cooldown for this specific enemy
-                enemyCooldowns.put(enemyPosition, HEART_LOSS_COOLDOWN);
-            } else {
-                // Continue with normal enemy movement logic
-                float directionX;
-                float directionY;
-
-                // Check if the character is close enough to the enemy
-                if (distance < 100) { // Adjust the value as needed for your game
-                    // Move towards the character with decreased speed
-                    directionX = deltaX / 200;
-                    directionY = deltaY / 200;
-                } else {
-                    // Move up and down until the character is close
-                    directionX = 0;
-                    directionY = (float) Math.sin(stateTime) * ENEMY_SPEED * delta; // Adjust speed as needed
-                }
-
-                float moveAmount = ENEMY_SPEED * delta;
-
-                enemyPosition.x += directionX * moveAmount;
-                enemyPosition.y += directionY * moveAmount;
-            }
+                break;
+
+            case KEY_PICKED:
+                game.getKeyCollectedSound().play();
+                break;
+
+            case EXIT_REACHED:
+                saveRecording();
+                game.goToWin(event.getElapsedTime());
+                break;
+
+            case PLAYER_DIED:
+                saveRecording();
+                game.getGameOverSound().play();
+                game.goToOver();
+                break;
         }
     }
 
     /**
-     * Navigates to the win screen when the player wins the game.
-     */
-    private void goToWinScreen() {
-        game.goToWin(elapsedTime);
-    }
-
-    /**
-     * Finds the position of the heart in the maze.
-     *
-     * @return The position of the heart as a Vector2.
+     * Writes the recording of this session to "replays" in the game's local directory, once.
      */
-    private Vector2 findHeartPosition() {
-        for (Vector2 heartPosition : heartPositions) {
-            return heartPosition;
+    private void saveRecording() {
+        if (recording == null || isRecordingSaved || recording.getStepCount() == 0) {
+            return;
+        }
+        isRecordingSaved = true;
+        FileHandle file = Gdx.files.local("replays/replay-" + System.currentTimeMillis() + "." + Replay.EXTENSION);
+        try (OutputStream out = new BufferedOutputStream(file.write(false))) {
+            recording.write(out);
+            Gdx.app.log("Replay", "Saved " + recording.getStepCount() + " steps to " + file.path());
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not save the replay", e);
         }
-        return new Vector2(0, 0); // Default to (0,0) if no heart is found
     }
 
     /**
-     * Adds a new key to the maze when the player collects a heart.
-     *
-     * @param maze The 2D array representing the maze.
+     * Works out which cells are visible through the camera, so only those are drawn.
+     * For chunked maps, the chunks under the camera are loaded on demand, and the ones ahead of the
+     * character's movement are prefetched so they are ready when they scroll into view.
      */
-    private void addNewKey(int[][] maze) {
-        // Find the position of the heart in the maze
-        Vector2 heartPosition = findHeartPosition();
-
-        // Find a suitable location next to the heart for the new key
-        Vector2 newKeyPosition = findNewKeyPosition(maze, heartPosition);
-
-        // Place the new key in the maze
-        maze[(int) newKeyPosition.y][(int) newKeyPosition.x] = 5; // Assuming '5' is the key cell type
+    private void updateVisibleCells() {
+        float halfWidth = camera.viewportWidth * camera.zoom * 0.5f;
+        float halfHeight = camera.viewportHeight * camera.zoom * 0.5f;
+        visibleMinCol = (int) Math.floor((camera.position.x - halfWidth) / 16);
+        visibleMinRow = (int) Math.floor((camera.position.y - halfHeight) / 16);
+        visibleMaxCol = (int) Math.floor((camera.position.x + halfWidth) / 16);
+        visibleMaxRow = (int) Math.floor((camera.position.y + halfHeight) / 16);
+
+        if (maze instanceof ChunkedMap) {
+            ((ChunkedMap) maze).update(visibleMinCol, visibleMinRow, visibleMaxCol, visibleMaxRow, moveAmountX, moveAmountY);
+        }
     }
 
     /**
-     * Finds a suitable position next to the heart for placing a new key.
+     * Logs how many sprites the maze renderer drew and culled, every few seconds at debug level.
      *
-     * @param maze          The 2D array representing the maze.
-     * @param heartPosition The position of the heart.
-     * @return The position for the new key as a Vector2.
+     * @param delta The time in seconds since the last frame.
      */
-    private Vector2 findNewKeyPosition(int[][] maze, Vector2 heartPosition) {
-        // Define the possible directions next to the heart where the new key can be placed
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-
-        for (int[] direction : directions) {
-            int newRow = (int) heartPosition.y + direction[1];
-            int newCol = (int) heartPosition.x + direction[0];
-
-            // Check if the new position is within the maze boundaries and is a walkable cell
-            if (newRow >= 0 && newRow < maze.length && newCol >= 0 && newCol < maze[0].length && maze[newRow][newCol] != 0) {
-                return new Vector2(newCol, newRow);
-            }
+    private void logRenderStats(float delta) {
+        renderStatsTimer += delta;
+        if (renderStatsTimer >= RENDER_STATS_INTERVAL) {
+            renderStatsTimer = 0;
+            Gdx.app.debug("RenderMaze", "drawn=" + renderMaze.getDrawnSprites() + " culled=" + renderMaze.getCulledSprites());
         }
-
-        // If no suitable position is found, return the heart position as a fallback
-        return heartPosition;
     }
 
     /**
      * Zooms out the game view to show more of the map.
+     * Large maps are zoomed out far enough to fit on the screen; the renderer then draws their overview.
      */
     private void zoomOut() {
         // Adjust the zoom level
         zoomLevel = 0.5f; // You can adjust this value for the desired zoom level
+        if (!(maze instanceof ChunkedMap)) {
+            // Chunked maps are too large to show whole, and have no overview to draw them with
+            float fitZoom = Math.max(maze.getWidth() * 16 / camera.viewportWidth, maze.getHeight() * 16 / camera.viewportHeight);
+            zoomLevel = Math.max(zoomLevel, fitZoom);
+        }
 
         // Update the camera's zoom
         camera.zoom = zoomLevel;
 
         // Calculate the center position of the map
-        float centerX = maze[0].length * 16 * 0.5f; // Adjust 16 to your tile size
-        float centerY = maze.length * 16 * 0.5f; // Adjust 16 to your tile size
+        float centerX = maze.getWidth() * 16 * 0.5f; // Adjust 16 to your tile size
+        float centerY = maze.getHeight() * 16 * 0.5f; // Adjust 16 to your tile size
 
         // Set the camera's position to the center of the map
         camera.position.set(centerX, centerY, 0);
@@ -529,7 +431,7 @@ private void zoomIn() {
         camera.zoom = zoomLevel;
 
         // Reset the camera's position to follow the character
-        Vector2 characterPosition = character.getPosition();
+        Vector2 characterPosition = world.getCharacter().getPosition();
         camera.position.set(characterPosition.x, characterPosition.y, 0);
 
         // Update the camera
@@ -587,10 +489,8 @@ public void dispose() {
         game.getSpriteBatch().dispose();
         game.getSkin().dispose();
         renderMaze.dispose(); // Assuming RenderMaze has a dispose method
-
-        // Dispose texture resources
-        heartTexture.getTexture().dispose();
-
+        renderStatsOverlay.dispose();
+        saveRecording(); // The session was left without winning or losing
 
         // Dispose other resources
         game.getLifeLostSound().dispose();
@@ -22,7 +22,7 @@
 /**
  * The screen displayed when the player wins the game.
  * This screen shows a background image, the winning title, the time taken to win,
- * and options to restart the game or return to the main menu.
+ * and options to restart the game, move on to the next level or return to the main menu.
  */
 public class GameWinScreen implements Screen {
 
@@ -77,6 +77,19 @@ public GameWinScreen(MazeRunnerGame game, float elapsedTime) {
         TextButton restartButton = new TextButton("Restart", game.getSkin());
         table.add(restartButton).width(200).height(50).padBottom(20).row();
 
+        // Create and add a "Next Level" button if there is a level after this one
+        if (game.hasNextLevel()) {
+            TextButton nextLevelButton = new TextButton("Next Level", game.getSkin());
+            table.add(nextLevelButton).width(200).height(50).padBottom(20).row();
+            nextLevelButton.addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeEvent event, Actor actor) {
+                    // Move on to the next level, which was prefetched while this one was played
+                    game.goToNextLevel();
+                }
+            });
+        }
+
         // Create and add a "Return to Menu" button
         TextButton returnToMenuButton = new TextButton("Go to Menu", game.getSkin());
         table.add(returnToMenuButton).width(200).height(50).row();
@@ -85,7 +98,7 @@ public GameWinScreen(MazeRunnerGame game, float elapsedTime) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // Restart the game when the button is clicked
-                game.goToGame();
+                game.restartLevel();
             }
         });
 
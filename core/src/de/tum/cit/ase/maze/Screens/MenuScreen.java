@@ -15,13 +15,20 @@
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import de.tum.cit.ase.maze.Map.BinaryMapLoader;
+import de.tum.cit.ase.maze.Map.ChunkedMap;
 import de.tum.cit.ase.maze.Map.MapDataHolder;
-import de.tum.cit.ase.maze.Map.MapLoader;
+import de.tum.cit.ase.maze.Map.MapLoadTask;
+import de.tum.cit.ase.maze.Map.MazeMap;
 import de.tum.cit.ase.maze.Maze.MazeRunnerGame;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * The MenuScreen class is responsible for displaying the main menu of the game.
@@ -31,7 +38,10 @@ public class MenuScreen implements Screen {
 
     private final Stage stage;
 
-    private int[][] selectedMap;
+    // The map currently loading in the background, if any
+    private Future<MazeMap> pendingLoad;
+    private MapLoadTask pendingTask;
+    private Label loadingLabel;
 
     private Texture backgroundTexture;
 
@@ -75,19 +85,25 @@ public MenuScreen(MazeRunnerGame game) {
         goToGameButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.goToGame(); // Change to the game screen when button is pressed
+                // Wait for a map that is still loading, so the game never starts on a half-loaded map
+                if (pendingLoad == null || finishLoading()) {
+                    game.goToGame(); // Change to the game screen when button is pressed
+                }
             }
         });
         table.add(goToGameButton).width(300).row();
 
+        loadingLabel = new Label("", game.getSkin());
+        table.add(loadingLabel).padTop(20).row();
+
         createMapSelectionButton(game);
     }
 
     /**
      * Initiates the map selection process using a file chooser dialog.
      * This method is triggered when the "Select Map" button is pressed.
-     * It allows the user to choose a properties file for the game map.
-     * The selected map is loaded using `MapLoader` and set in `MapDataHolder`.
+     * It allows the user to choose a properties, binary ".maze" or chunked ".mazechunk" file for the game map.
+     * The selected map is then loaded in the background, see `startLoading`.
      * Uses a Swing EventQueue to ensure proper GUI thread execution.
      */
     private void mapSelection() {
@@ -96,19 +112,72 @@ private void mapSelection() {
             // Specify the full path to the maps directory
             String path = "C:\\Users\\iyers\\eclipse-workspace\\fophn2324infun2324projectworkx-ternaryteam\\maps";
             JFileChooser fileChooser = new JFileChooser(path);
-            FileNameExtensionFilter fileFilter = new FileNameExtensionFilter("Properties file", "properties");
+            FileNameExtensionFilter fileFilter = new FileNameExtensionFilter("Map file", "properties", BinaryMapLoader.EXTENSION, ChunkedMap.EXTENSION);
             fileChooser.setFileFilter(fileFilter);
             fileChooser.addChoosableFileFilter(fileFilter);
             int returnVal = fileChooser.showOpenDialog(null);
             if (returnVal == JFileChooser.APPROVE_OPTION) {
                 String filePath = fileChooser.getSelectedFile().getAbsolutePath();
-                selectedMap = MapLoader.loadMap(filePath);
-                MapDataHolder.setSelectedMap(selectedMap);
-                MapDataHolder.displaySelectedMap();
+                Gdx.app.postRunnable(() -> startLoading(filePath)); // Hand the file back to the render thread
             }
         });
     }
 
+    /**
+     * Starts loading the given map on the game's map loading executor.
+     * A map that is still loading from an earlier selection is cancelled.
+     *
+     * @param filePath The path of the selected map file.
+     */
+    private void startLoading(String filePath) {
+        cancelLoading();
+        pendingTask = new MapLoadTask(filePath);
+        pendingLoad = game.getMapLoadExecutor().submit(pendingTask);
+    }
+
+    /**
+     * Cancels the map that is currently loading, if any. A map that finished loading but was never selected is closed.
+     */
+    private void cancelLoading() {
+        if (pendingLoad != null) {
+            if (!pendingLoad.cancel(true) && !pendingLoad.isCancelled()) {
+                try {
+                    pendingLoad.get().close();
+                } catch (ExecutionException | InterruptedException | IOException e) {
+                    // Loading failed, so there is no map to close
+                }
+            }
+            pendingLoad = null;
+            pendingTask = null;
+        }
+    }
+
+    /**
+     * Waits for the loading map and hands it to `MapDataHolder`.
+     * Only called on the render thread, so the game screen never sees a map that is still being set.
+     *
+     * @return True if the map was loaded, false if loading failed.
+     */
+    private boolean finishLoading() {
+        String mapName = pendingTask.getMapName();
+        try {
+            MapDataHolder.setSelectedMap(pendingLoad.get());
+            game.setSelectedMapPath(mapName);
+            loadingLabel.setText("Map loaded");
+            return true;
+        } catch (ExecutionException e) {
+            Gdx.app.error("MenuScreen", "Could not load map " + mapName, e.getCause());
+            loadingLabel.setText("Could not load map");
+            return false;
+        } catch (InterruptedException | CancellationException e) {
+            loadingLabel.setText("");
+            return false;
+        } finally {
+            pendingLoad = null;
+            pendingTask = null;
+        }
+    }
+
     /**
      * Creates and adds a "Select Map" button to the menu screen.
      * This button triggers the map selection process when pressed.
@@ -140,6 +209,15 @@ public void changed(ChangeEvent event, Actor actor) {
      */
     @Override
     public void render(float delta) {
+        // Show the progress of a loading map, and pick it up once it is ready
+        if (pendingLoad != null) {
+            if (pendingLoad.isDone()) {
+                finishLoading();
+            } else {
+                loadingLabel.setText("Loading map... " + (int) (pendingTask.getProgress() * 100) + "%");
+            }
+        }
+
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT); // Clear the screen
         stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f)); // Update the stage
         stage.draw(); // Draw the stage
@@ -153,6 +231,7 @@ public void resize(int width, int height) {
     @Override
     public void dispose() {
         // Dispose of the stage when screen is disposed
+        cancelLoading();
         stage.dispose();
     }
 
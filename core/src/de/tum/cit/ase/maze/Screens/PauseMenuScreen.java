@@ -72,7 +72,7 @@ public void changed(ChangeEvent event, Actor actor) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // Restart the game when the button is clicked
-                game.goToGame();
+                game.restartLevel();
             }
         });
 
@@ -0,0 +1,229 @@
+package de.tum.cit.ase.maze.Screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import de.tum.cit.ase.maze.Maze.RenderMaze;
+import de.tum.cit.ase.maze.World.GameWorld;
+
+import java.util.Arrays;
+
+/**
+ * The `RenderStatsOverlay` class shows what drawing a frame costs, toggled with F3 in the game screen.
+ * For the world pass (maze and character) and the UI pass (hearts and key) it measures the batch's render calls,
+ * the texture binds and GL draw calls counted by libGDX's `GLProfiler`, and the time spent submitting the pass.
+ * That time is measured on the CPU, from the start of the pass until its `batch.end()` returns, so it shows what
+ * issuing the GL calls costs, not how long the GPU takes to run them: timer queries need a GL 3 context, and the
+ * game runs on GL 2.0.
+ * It also counts the enemies in each activity tier of the world, since they decide what a step costs.
+ * Next to the value of the last frame, it shows the average over the last second or so.
+ * The text is built in one reused `StringBuilder`, so showing the overlay does not allocate every frame,
+ * and the overlay is drawn after the frame is measured, so its own drawing is not counted.
+ */
+public class RenderStatsOverlay {
+
+    // Number of frames the rolling averages are taken over
+    private static final int WINDOW = 60;
+
+    private static final int WORLD_RENDER_CALLS = 0;
+    private static final int UI_RENDER_CALLS = 1;
+    private static final int MAX_SPRITES_IN_BATCH = 2;
+    private static final int SPRITES_DRAWN = 3;
+    private static final int SPRITES_CULLED = 4;
+    private static final int WORLD_TEXTURE_BINDS = 5;
+    private static final int UI_TEXTURE_BINDS = 6;
+    private static final int GL_DRAW_CALLS = 7;
+    private static final int WORLD_SUBMIT_NANOS = 8;
+    private static final int UI_SUBMIT_NANOS = 9;
+    private static final int ENEMIES_ACTIVE = 10;
+    private static final int ENEMIES_MID = 11;
+    private static final int ENEMIES_ASLEEP = 12;
+    private static final int STAT_COUNT = 13;
+
+    private final GLProfiler profiler;
+    private final StringBuilder text = new StringBuilder(512);
+
+    // The last WINDOW values of every stat, and their running sums
+    private final long[][] history = new long[STAT_COUNT][WINDOW];
+    private final long[] sums = new long[STAT_COUNT];
+    private final long[] current = new long[STAT_COUNT];
+    private int frame;
+    private int recordedFrames;
+
+    private boolean visible;
+    private long passStart;
+    private int passStartBinds;
+
+    /**
+     * Creates a hidden overlay.
+     */
+    public RenderStatsOverlay() {
+        profiler = new GLProfiler(Gdx.graphics);
+    }
+
+    /**
+     * Shows or hides the overlay. The profiler only intercepts GL calls while the overlay is shown.
+     */
+    public void toggle() {
+        visible = !visible;
+        if (visible) {
+            profiler.enable();
+            frame = 0;
+            recordedFrames = 0;
+            for (int stat = 0; stat < STAT_COUNT; stat++) {
+                sums[stat] = 0;
+                Arrays.fill(history[stat], 0);
+            }
+        } else {
+            profiler.disable();
+        }
+    }
+
+    /**
+     * @return True if the overlay is shown and measuring.
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Starts measuring a frame. Call before anything of the frame is drawn.
+     *
+     * @param batch The batch the frame is drawn with.
+     */
+    public void beginFrame(SpriteBatch batch) {
+        if (!visible) {
+            return;
+        }
+        profiler.reset();
+        batch.maxSpritesInBatch = 0;
+        beginPass();
+    }
+
+    /**
+     * Ends the world pass and starts the UI pass. Call after the world's `batch.end()`, since render calls are
+     * only complete once the batch is flushed.
+     *
+     * @param batch      The batch the world was drawn with.
+     * @param renderMaze The renderer whose sprite counters are shown.
+     */
+    public void endWorldPass(SpriteBatch batch, RenderMaze renderMaze) {
+        if (!visible) {
+            return;
+        }
+        current[WORLD_SUBMIT_NANOS] = System.nanoTime() - passStart;
+        current[WORLD_RENDER_CALLS] = batch.renderCalls;
+        current[WORLD_TEXTURE_BINDS] = profiler.getTextureBindings() - passStartBinds;
+        current[SPRITES_DRAWN] = renderMaze.getDrawnSprites();
+        current[SPRITES_CULLED] = renderMaze.getCulledSprites();
+        beginPass();
+    }
+
+    /**
+     * Counts the enemies in each activity tier. Call before `endFrame`.
+     *
+     * @param world The world being shown.
+     */
+    public void recordEnemyTiers(GameWorld world) {
+        if (!visible) {
+            return;
+        }
+        current[ENEMIES_ACTIVE] = world.getEnemyTierCount(GameWorld.TIER_ACTIVE);
+        current[ENEMIES_MID] = world.getEnemyTierCount(GameWorld.TIER_MID);
+        current[ENEMIES_ASLEEP] = world.getEnemyTierCount(GameWorld.TIER_ASLEEP);
+    }
+
+    /**
+     * Ends the UI pass and the frame, and adds the frame to the rolling averages. Call after the UI's `batch.end()`.
+     *
+     * @param batch The batch the UI was drawn with.
+     */
+    public void endFrame(SpriteBatch batch) {
+        if (!visible) {
+            return;
+        }
+        current[UI_SUBMIT_NANOS] = System.nanoTime() - passStart;
+        current[UI_RENDER_CALLS] = batch.renderCalls;
+        current[UI_TEXTURE_BINDS] = profiler.getTextureBindings() - passStartBinds;
+        current[MAX_SPRITES_IN_BATCH] = batch.maxSpritesInBatch;
+        current[GL_DRAW_CALLS] = profiler.getDrawCalls();
+
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            sums[stat] += current[stat] - history[stat][frame];
+            history[stat][frame] = current[stat];
+        }
+        frame = (frame + 1) % WINDOW;
+        recordedFrames = Math.min(recordedFrames + 1, WINDOW);
+    }
+
+    /**
+     * Draws the stats of the last measured frame in the top left corner, below the hearts.
+     *
+     * @param batch  The batch to draw with, already set up for screen coordinates. It is begun and ended here.
+     * @param font   The font to write with.
+     * @param height The height of the screen.
+     */
+    public void render(SpriteBatch batch, BitmapFont font, float height) {
+        if (!visible || recordedFrames == 0) {
+            return;
+        }
+        text.setLength(0);
+        text.append("frame / avg ").append(recordedFrames).append('\n');
+        appendLine("world render calls", WORLD_RENDER_CALLS, false);
+        appendLine("ui render calls", UI_RENDER_CALLS, false);
+        appendLine("gl draw calls", GL_DRAW_CALLS, false);
+        appendLine("max sprites in batch", MAX_SPRITES_IN_BATCH, false);
+        appendLine("maze sprites drawn", SPRITES_DRAWN, false);
+        appendLine("maze sprites culled", SPRITES_CULLED, false);
+        appendLine("world texture binds", WORLD_TEXTURE_BINDS, false);
+        appendLine("ui texture binds", UI_TEXTURE_BINDS, false);
+        appendLine("world cpu submit ms", WORLD_SUBMIT_NANOS, true);
+        appendLine("ui cpu submit ms", UI_SUBMIT_NANOS, true);
+        appendLine("enemies active", ENEMIES_ACTIVE, false);
+        appendLine("enemies mid-range", ENEMIES_MID, false);
+        appendLine("enemies asleep", ENEMIES_ASLEEP, false);
+
+        batch.begin();
+        font.draw(batch, text, 50, height - 180);
+        batch.end();
+    }
+
+    /**
+     * Stops the profiler, so GL calls are no longer intercepted after the game screen is gone.
+     */
+    public void dispose() {
+        profiler.disable();
+    }
+
+    private void beginPass() {
+        passStart = System.nanoTime();
+        passStartBinds = profiler.getTextureBindings();
+    }
+
+    private void appendLine(String label, int stat, boolean nanos) {
+        int last = (frame + WINDOW - 1) % WINDOW;
+        long average = sums[stat] / recordedFrames;
+        text.append(label).append(": ");
+        if (nanos) {
+            appendMillis(history[stat][last]);
+            text.append(" / ");
+            appendMillis(average);
+        } else {
+            text.append(history[stat][last]).append(" / ").append(average);
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Writes a duration as milliseconds with two decimals, without going through floating point strings.
+     */
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10_000;
+        text.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) {
+            text.append('0');
+        }
+        text.append(hundredths % 100);
+    }
+}
@@ -0,0 +1,189 @@
+package de.tum.cit.ase.maze.World;
+
+import java.util.Arrays;
+
+/**
+ * The `EnemyStore` class keeps all enemies of a level in parallel arrays, one array per property,
+ * instead of one object per enemy. Updating every enemy then walks straight through a few arrays,
+ * which needs no allocation, stays in the CPU cache and lets the JIT use vector instructions.
+ * An enemy is just its index; removing one moves the last enemy into its place.
+ * <p>
+ * Enemies that are not moved in a step are not touched at all: the store remembers which enemies moved,
+ * and only those have their previous positions brought up to date.
+ */
+public class EnemyStore {
+
+    // Values of the state array
+    public static final int PATROLLING = 0;
+    public static final int CHASING = 1;
+    // Resting for a while after hitting the character
+    public static final int RECOVERING = 2;
+
+    // Positions in pixels, and where the enemies were before the last step, for drawing in between
+    float[] x = new float[0];
+    float[] y = new float[0];
+    float[] previousX = new float[0];
+    float[] previousY = new float[0];
+    // Pixels per second during the current step
+    float[] velocityX = new float[0];
+    float[] velocityY = new float[0];
+    // Seconds left of the rest after hitting the character
+    float[] cooldown = new float[0];
+    // Where a patrolling enemy's up and down movement is centered, so its y-coordinate follows from the time alone
+    float[] patrolBaseY = new float[0];
+    int[] state = new int[0];
+    int count;
+
+    // The enemies moved since the last `savePreviousPositions`, listed once each
+    private int[] moved = new int[0];
+    private boolean[] isMoved = new boolean[0];
+    private int movedCount;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity The number of enemies the store has room for before it grows.
+     */
+    public EnemyStore(int capacity) {
+        resize(Math.max(capacity, 8));
+    }
+
+    /**
+     * Adds a patrolling enemy.
+     *
+     * @param px The x-coordinate of the enemy in pixels.
+     * @param py The y-coordinate of the enemy in pixels.
+     * @return The index of the new enemy.
+     */
+    public int add(float px, float py) {
+        if (count == x.length) {
+            resize(count * 2);
+        }
+        x[count] = px;
+        y[count] = py;
+        previousX[count] = px;
+        previousY[count] = py;
+        velocityX[count] = 0;
+        velocityY[count] = 0;
+        cooldown[count] = 0;
+        patrolBaseY[count] = py;
+        state[count] = PATROLLING;
+        isMoved[count] = false;
+        return count++;
+    }
+
+    /**
+     * Removes an enemy by moving the last enemy into its place.
+     *
+     * @param index The index of the enemy to remove.
+     * @return The old index of the enemy that now has `index`, or -1 if the removed enemy was the last one.
+     */
+    public int remove(int index) {
+        // The list of moved enemies refers to indices, so it is settled before they change
+        savePreviousPositions();
+        int last = --count;
+        if (index == last) {
+            return -1;
+        }
+        x[index] = x[last];
+        y[index] = y[last];
+        previousX[index] = previousX[last];
+        previousY[index] = previousY[last];
+        velocityX[index] = velocityX[last];
+        velocityY[index] = velocityY[last];
+        cooldown[index] = cooldown[last];
+        patrolBaseY[index] = patrolBaseY[last];
+        state[index] = state[last];
+        return last;
+    }
+
+    /**
+     * @return The number of enemies.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param index The index of an enemy.
+     * @return The x-coordinate of the enemy in pixels.
+     */
+    public float getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * @param index The index of an enemy.
+     * @return The y-coordinate of the enemy in pixels.
+     */
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * @param index The index of an enemy.
+     * @param alpha How far between the previous step (0) and the last step (1) to draw the enemy.
+     * @return The x-coordinate to draw the enemy at, in pixels.
+     */
+    public float getDrawX(int index, float alpha) {
+        return previousX[index] + (x[index] - previousX[index]) * alpha;
+    }
+
+    /**
+     * @param index The index of an enemy.
+     * @param alpha How far between the previous step (0) and the last step (1) to draw the enemy.
+     * @return The y-coordinate to draw the enemy at, in pixels.
+     */
+    public float getDrawY(int index, float alpha) {
+        return previousY[index] + (y[index] - previousY[index]) * alpha;
+    }
+
+    /**
+     * @param index The index of an enemy.
+     * @return `PATROLLING`, `CHASING` or `RECOVERING`.
+     */
+    public int getState(int index) {
+        return state[index];
+    }
+
+    /**
+     * Remembers the current positions as the positions before the next step. Only the enemies that moved since
+     * the last call are copied; all others already have the same current and previous position.
+     */
+    public void savePreviousPositions() {
+        for (int n = 0; n < movedCount; n++) {
+            int i = moved[n];
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            isMoved[i] = false;
+        }
+        movedCount = 0;
+    }
+
+    /**
+     * Notes that an enemy is about to move, so its previous position is updated by the next `savePreviousPositions`.
+     * Enemies moved by different threads must be marked by one thread, before or after.
+     *
+     * @param index The index of the enemy.
+     */
+    void markMoved(int index) {
+        if (!isMoved[index]) {
+            isMoved[index] = true;
+            moved[movedCount++] = index;
+        }
+    }
+
+    private void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        patrolBaseY = Arrays.copyOf(patrolBaseY, capacity);
+        state = Arrays.copyOf(state, capacity);
+        moved = Arrays.copyOf(moved, capacity);
+        isMoved = Arrays.copyOf(isMoved, capacity);
+    }
+}
@@ -0,0 +1,154 @@
+package de.tum.cit.ase.maze.World;
+
+import de.tum.cit.ase.maze.Map.MazeMap;
+
+/**
+ * The `FlowField` class tells every cell around the character which neighboring cell leads towards the character
+ * the fastest without crossing walls. It is computed once with a breadth-first search from the character's cell,
+ * and all enemies share it: an enemy only looks up the cell it stands in, however many enemies there are.
+ * <p>
+ * The search only covers the cells within a radius of the character, and only runs again when the character
+ * enters another cell, so it costs at most the number of cells in that square per cell the character walks.
+ * Cells farther away, or walled off within the radius, are unreachable.
+ */
+public class FlowField {
+
+    // Values returned by `getDirection`
+    public static final int UNREACHABLE = -1;
+    public static final int ARRIVED = 0;
+    public static final int UP = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+    public static final int RIGHT = 4;
+
+    // Column and row offsets of the directions, indexed by the values above
+    private static final int[] STEP_COL = {0, 0, 0, -1, 1};
+    private static final int[] STEP_ROW = {0, 1, -1, 0, 0};
+
+    private final int radius;
+    private final int size;
+    // Per cell of the square around the character: the direction towards it, valid if the stamp is the current search
+    private final byte[] direction;
+    private final int[] stamp;
+    private final int[] queue;
+    private int search;
+
+    private MazeMap maze;
+    private int originCol;
+    private int originRow;
+
+    /**
+     * Creates an empty field. Every cell is unreachable until the first `update`.
+     *
+     * @param radius How many cells the field reaches from the character in each direction.
+     */
+    public FlowField(int radius) {
+        this.radius = radius;
+        size = radius * 2 + 1;
+        direction = new byte[size * size];
+        stamp = new int[size * size];
+        queue = new int[size * size];
+    }
+
+    /**
+     * Searches the maze again if the character is in another cell than at the last search.
+     *
+     * @param maze The map representing the maze.
+     * @param col  The column of the character's cell.
+     * @param row  The row of the character's cell.
+     * @return True if the field was computed again.
+     */
+    public boolean update(MazeMap maze, int col, int row) {
+        if (search > 0 && maze == this.maze && col == originCol && row == originRow) {
+            return false;
+        }
+        this.maze = maze;
+        originCol = col;
+        originRow = row;
+        search++;
+        if (col < 0 || col >= maze.getWidth() || row < 0 || row >= maze.getHeight()) {
+            return true; // Everything stays unreachable
+        }
+
+        int head = 0;
+        int tail = 0;
+        int origin = radius * size + radius;
+        stamp[origin] = search;
+        direction[origin] = ARRIVED;
+        queue[tail++] = origin;
+        while (head < tail) {
+            int cell = queue[head++];
+            int localCol = cell % size;
+            int localRow = cell / size;
+            for (int d = UP; d <= RIGHT; d++) {
+                int neighborCol = localCol + STEP_COL[d];
+                int neighborRow = localRow + STEP_ROW[d];
+                if (neighborCol < 0 || neighborCol >= size || neighborRow < 0 || neighborRow >= size) {
+                    continue;
+                }
+                int neighbor = neighborRow * size + neighborCol;
+                if (stamp[neighbor] == search) {
+                    continue;
+                }
+                int mazeCol = originCol - radius + neighborCol;
+                int mazeRow = originRow - radius + neighborRow;
+                if (mazeCol < 0 || mazeCol >= maze.getWidth() || mazeRow < 0 || mazeRow >= maze.getHeight()
+                        || maze.getCell(mazeCol, mazeRow) == 0) {
+                    continue; // Outside the maze or a wall
+                }
+                stamp[neighbor] = search;
+                // The neighbor was reached from this cell, so it leads back the opposite way
+                direction[neighbor] = (byte) opposite(d);
+                queue[tail++] = neighbor;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks up which way leads towards the character from a cell.
+     *
+     * @param col The column of the cell.
+     * @param row The row of the cell.
+     * @return `UP`, `DOWN`, `LEFT` or `RIGHT`; `ARRIVED` in the character's cell; `UNREACHABLE` if there is no way
+     * within the radius.
+     */
+    public int getDirection(int col, int row) {
+        int localCol = col - originCol + radius;
+        int localRow = row - originRow + radius;
+        if (localCol < 0 || localCol >= size || localRow < 0 || localRow >= size) {
+            return UNREACHABLE;
+        }
+        int cell = localRow * size + localCol;
+        return stamp[cell] == search ? direction[cell] : UNREACHABLE;
+    }
+
+    /**
+     * @param direction `UP`, `DOWN`, `LEFT` or `RIGHT`.
+     * @return How the column changes when going that way.
+     */
+    public static int getStepCol(int direction) {
+        return STEP_COL[direction];
+    }
+
+    /**
+     * @param direction `UP`, `DOWN`, `LEFT` or `RIGHT`.
+     * @return How the row changes when going that way.
+     */
+    public static int getStepRow(int direction) {
+        return STEP_ROW[direction];
+    }
+
+    private static int opposite(int direction) {
+        switch (direction) {
+            case UP:
+                return DOWN;
+            case DOWN:
+                return UP;
+            case LEFT:
+                return RIGHT;
+            default:
+                return LEFT;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package de.tum.cit.ase.maze.World;
+
+/**
+ * The `GameEvent` class describes something that happened in the game world, such as the character stepping
+ * on a trap or reaching the exit. Events are handed out by a `GameEventQueue`, which reuses the same few objects
+ * for every frame, so consumers should read what they need while handling an event and not keep it.
+ */
+public class GameEvent {
+
+    /**
+     * The kinds of events, in the order they are handed out within a frame:
+     * sounds and the heads-up display come before the screen changes.
+     */
+    public enum Type {
+        TRAP_HIT,
+        ENEMY_HIT,
+        KEY_PICKED,
+        EXIT_REACHED,
+        PLAYER_DIED
+    }
+
+    private Type type;
+    private int count;
+    private float elapsedTime;
+
+    GameEvent() {
+    }
+
+    void set(Type type, float elapsedTime) {
+        this.type = type;
+        this.count = 1;
+        this.elapsedTime = elapsedTime;
+    }
+
+    void merge() {
+        count++;
+    }
+
+    /**
+     * @return What happened.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return How many events of this type happened during the frame and were merged into this one.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return For `EXIT_REACHED`, the time in seconds the level took; 0 for the other types.
+     */
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+}
@@ -0,0 +1,121 @@
+package de.tum.cit.ase.maze.World;
+
+/**
+ * The `GameEventQueue` class collects what the game world reports during its steps, so the sounds, the heads-up
+ * display and the screen changes can react once per frame instead of in the middle of a step.
+ * The world reports to it as its `WorldListener`, and the view drains it after the frame is drawn.
+ * <p>
+ * The events wait in a ring buffer for one producer and one consumer. The producer only moves the tail and the
+ * consumer only moves the head, so neither ever waits for the other, even if the world is stepped on another
+ * thread. The events in the ring are created once and reused. Events of the same type reported during one frame
+ * are merged when they are drained, so standing on a trap plays its sound once rather than on every step.
+ */
+public class GameEventQueue implements WorldListener {
+
+    // Far more than a frame of steps reports; when the ring is full, further events are dropped and counted
+    private static final int CAPACITY = 64;
+
+    /**
+     * The `Consumer` interface receives the events drained from the queue.
+     */
+    public interface Consumer {
+
+        /**
+         * @param event What happened during the frame, merged with the other events of its type.
+         *              Only valid during the call.
+         */
+        void onEvent(GameEvent event);
+    }
+
+    private final GameEvent[] ring = new GameEvent[CAPACITY];
+    // One event per type, where the drained events are merged, and which of them received any
+    private final GameEvent[] merged = new GameEvent[GameEvent.Type.values().length];
+    private final boolean[] isMerged = new boolean[merged.length];
+
+    // Count up forever; the slot is the count modulo the capacity. Only the consumer writes the head
+    // and only the producer writes the tail.
+    private volatile int head = 0;
+    private volatile int tail = 0;
+    private volatile int droppedCount = 0;
+
+    /**
+     * Creates an empty queue.
+     */
+    public GameEventQueue() {
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new GameEvent();
+        }
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = new GameEvent();
+        }
+    }
+
+    @Override
+    public void onLifeLost(boolean byEnemy) {
+        push(byEnemy ? GameEvent.Type.ENEMY_HIT : GameEvent.Type.TRAP_HIT, 0);
+    }
+
+    @Override
+    public void onKeyCollected() {
+        push(GameEvent.Type.KEY_PICKED, 0);
+    }
+
+    @Override
+    public void onGameOver() {
+        push(GameEvent.Type.PLAYER_DIED, 0);
+    }
+
+    @Override
+    public void onGameWon(float elapsedTime) {
+        push(GameEvent.Type.EXIT_REACHED, elapsedTime);
+    }
+
+    /**
+     * Hands every waiting event to a consumer, at most one per type, in the order of the types.
+     * Only one thread may drain the queue.
+     *
+     * @param consumer Receives the merged events.
+     */
+    public void drain(Consumer consumer) {
+        int end = tail;
+        int start = head;
+        if (start == end) {
+            return;
+        }
+        for (int i = start; i != end; i++) {
+            GameEvent event = ring[i & (CAPACITY - 1)];
+            int type = event.getType().ordinal();
+            if (isMerged[type]) {
+                merged[type].merge();
+            } else {
+                merged[type].set(event.getType(), event.getElapsedTime());
+                isMerged[type] = true;
+            }
+        }
+        head = end; // The slots can be reused now that the events are copied out
+
+        for (int type = 0; type < merged.length; type++) {
+            if (isMerged[type]) {
+                isMerged[type] = false;
+                consumer.onEvent(merged[type]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of events dropped because the queue was full.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    private void push(GameEvent.Type type, float elapsedTime) {
+        int end = tail;
+        if (end - head == CAPACITY) {
+            droppedCount++;
+            return;
+        }
+        ring[end & (CAPACITY - 1)].set(type, elapsedTime);
+        tail = end + 1; // Publishes the event to the consumer
+    }
+}
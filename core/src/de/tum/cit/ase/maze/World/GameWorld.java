@@ -0,0 +1,708 @@
+package de.tum.cit.ase.maze.World;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.ase.maze.Character.Character;
+import de.tum.cit.ase.maze.Map.LevelIndex;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import de.tum.cit.ase.maze.Map.MazeMap;
+import de.tum.cit.ase.maze.Map.PathfindingService;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The `GameWorld` class holds the rules of a level: the character's movement through the maze, traps,
+ * enemies, hearts, keys and winning or losing. It does not draw, play sounds or read input devices;
+ * `step` takes the player's input and reports what happened to a `WorldListener`.
+ * Without a window it can run as fast as the computer allows, for example to measure or check the game rules.
+ */
+public class GameWorld {
+
+    private static final float HEART_LOSS_COOLDOWN = 2.0f;
+    private static final float ENEMY_SPEED = 20.0f;
+    // Scales the up and down patrol of far away enemies to the speed it had at 60 frames per second
+    private static final float ENEMY_PATROL_SPEED = ENEMY_SPEED / 60f;
+    // Cells per second; the character used to move 0.1 cells every frame, which is this speed at 60 frames per second
+    private static final float CHARACTER_SPEED = 6.0f;
+    // The character collides with the maze by a box around its feet, in cells. It is narrower than a cell,
+    // so turning into a corridor does not take pixel-perfect aim.
+    private static final float CHARACTER_BOX_WIDTH = 0.6f;
+    private static final float CHARACTER_BOX_HEIGHT = 0.4f;
+    private static final int NUMBER_OF_HEARTS = 3;
+    // Enemies closer than this to the character chase it, and closer than the hit distance they hit it
+    private static final float ENEMY_CHASE_DISTANCE = 100;
+    private static final float ENEMY_HIT_DISTANCE = 20;
+    // Cells of 8 tiles (128 pixels) are a bit wider than the chase distance, so a chase search looks at 2x2 to 3x3 cells
+    private static final int ENEMY_HASH_TILES_PER_CELL = 8;
+    // Chasing enemies walk at this many pixels per second along the maze's corridors
+    private static final float ENEMY_CHASE_SPEED = ENEMY_SPEED / 2;
+    // How many cells around the character the chase paths reach; enough for the longest way around a wall
+    // between an enemy within the chase distance and the character
+    private static final int FLOW_FIELD_RADIUS = 16;
+    // With more enemies than this, their step is computed on all cores, a chunk of enemies at a time
+    private static final int PARALLEL_ENEMY_THRESHOLD = 4096;
+    private static final int ENEMY_CHUNK_SIZE = 2048;
+    // Patrolling enemies move up and down this many pixels around their center, following the time
+    private static final float PATROL_AMPLITUDE = ENEMY_PATROL_SPEED * ENEMY_SPEED;
+
+    // Activity tiers of the enemies. Active enemies are stepped every step. Mid-range enemies, near the character
+    // or in view, are brought up to date every few steps. All others sleep and are not touched at all.
+    public static final int TIER_ACTIVE = 0;
+    public static final int TIER_MID = 1;
+    public static final int TIER_ASLEEP = 2;
+    // Sleeping enemies may have patrolled up to twice the amplitude away from where the hash last saw them,
+    // so the hash is searched that much wider than the chase distance
+    private static final float ENEMY_ACTIVE_DISTANCE = ENEMY_CHASE_DISTANCE + 2 * PATROL_AMPLITUDE;
+    private static final float ENEMY_MID_DISTANCE = 320;
+    private static final int MID_TICK_STEPS = 4;
+    // The view is widened by this many pixels, so enemies are up to date before they come into view
+    private static final float VIEW_MARGIN = 32;
+
+    private final MazeMap maze;
+    private final WorldListener listener;
+    private final Character character;
+    private final Vector2 currentLocation;
+    private final TileCollider characterCollider =
+            new TileCollider((1 - CHARACTER_BOX_WIDTH) / 2, 0, CHARACTER_BOX_WIDTH, CHARACTER_BOX_HEIGHT);
+    // Receives the cells the character touches while moving; kept so moving does not create it every step
+    private final TileCollider.CellVisitor touchCell = this::touchCell;
+    // Which kinds of cells the character touched during the current step
+    private boolean touchedTrap;
+    private boolean touchedKey;
+    // The key cell the character touched, where a new key is placed next to once it is picked up
+    private int touchedKeyCol;
+    private int touchedKeyRow;
+    private boolean touchedExit;
+    private final EnemyStore enemies = new EnemyStore(16);
+    // Finds the enemies near the character without measuring the distance to every enemy
+    private SpatialHash enemyHash;
+    private final IntArray nearbyEnemies = new IntArray();
+    private boolean[] isNearby;
+    // The enemies stepped every step, in index order, and the list they are sorted into during a step
+    private IntArray activeEnemies = new IntArray();
+    private IntArray nextActiveEnemies = new IntArray();
+    private boolean[] isActive;
+    // The mid-range enemies found by the last mid-range update, and the number of that update they were last in
+    private final IntArray midEnemies = new IntArray();
+    private int[] midUpdate;
+    private int midUpdates;
+    private int midEnemyCount;
+    private int steps;
+    // The part of the world on screen, in pixels
+    private boolean hasView;
+    private float viewLeft;
+    private float viewBottom;
+    private float viewRight;
+    private float viewTop;
+    // Per enemy: whether it hit the character during the current step
+    private boolean[] hasHit;
+    // What the enemies' step depends on besides the enemies themselves, read by the threads computing it.
+    // Patrolling enemies are at `patrolBaseY - PATROL_AMPLITUDE * cos(time)` at the start and end of the step.
+    private float stepPlayerX;
+    private float stepPlayerY;
+    private float stepDelta;
+    private float stepCosNow;
+    private float stepCosNext;
+    // The ways to the character through the maze, shared by all chasing enemies
+    private final FlowField flowField = new FlowField(FLOW_FIELD_RADIUS);
+    // Long ways through the maze, for anyone who needs them; only for mazes that are fully loaded.
+    // Built on the first request, since measuring a large maze would hold up the start of every level.
+    private PathfindingService pathfinding;
+    private final boolean[] heartsStatus = new boolean[NUMBER_OF_HEARTS];
+
+    private float heartLossCooldownTimer = 0.0f;
+    private boolean hasKey = false;
+    private boolean isFinished = false;
+    // Drives the patrol of enemies that are not chasing
+    private float stateTime = 0f;
+    private float elapsedTime = 0f;
+
+    /**
+     * Creates a world for a maze, with the character at the entry and the enemies at their spawns.
+     *
+     * @param maze     The map representing the maze. Picked up keys change its cells.
+     * @param listener Receives what happens during each step.
+     */
+    public GameWorld(MazeMap maze, WorldListener listener) {
+        this.maze = maze;
+        this.listener = listener;
+        for (int i = 0; i < NUMBER_OF_HEARTS; i++) {
+            heartsStatus[i] = true; // All hearts are initially active
+        }
+
+        currentLocation = findEntryPoint(maze); // Use the entry point as the current location
+        character = new Character(currentLocation.x * 16, currentLocation.y * 16);
+        initializeEnemies();
+    }
+
+    /**
+     * Advances the world by one step: enemies move, then the character moves as the input asks.
+     * Once the game is won or lost, steps do nothing.
+     *
+     * @param input The player's input for this step.
+     * @param delta The length of the step in seconds.
+     */
+    public void step(InputState input, float delta) {
+        if (isFinished) {
+            return;
+        }
+        int moveX = input.getMoveX();
+        int moveY = input.getMoveY();
+        // Update the direction based on the most recent movement
+        if (moveX != 0 || moveY != 0) {
+            character.updateDirection(determineDirection(moveX, moveY));
+        }
+
+        moveEnemies(character.getPosition(), delta);
+        if (isFinished) {
+            return;
+        }
+        moveCharacter(moveX, moveY, delta);
+        stateTime += delta;
+        elapsedTime += delta; // Update the elapsed time
+    }
+
+    /**
+     * @return The character, with its position in pixels.
+     */
+    public Character getCharacter() {
+        return character;
+    }
+
+    /**
+     * @return The enemies, with their positions in pixels.
+     */
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * @return Which of the character's hearts are left.
+     */
+    public boolean[] getHeartsStatus() {
+        return heartsStatus;
+    }
+
+    /**
+     * @return True if the character has picked up a key.
+     */
+    public boolean hasKey() {
+        return hasKey;
+    }
+
+    /**
+     * @return True once the game is won or lost.
+     */
+    public boolean isFinished() {
+        return isFinished;
+    }
+
+    /**
+     * @return The time in seconds simulated so far.
+     */
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * @return The map representing the maze.
+     */
+    public MazeMap getMaze() {
+        return maze;
+    }
+
+    /**
+     * Tells the world which part of it is on screen, so the enemies there are kept up to date for drawing.
+     * This only changes how often patrolling enemies are brought up to date, never where they are,
+     * so the game plays the same with any view or none.
+     *
+     * @param left   The left edge of the view in pixels.
+     * @param bottom The bottom edge of the view in pixels.
+     * @param right  The right edge of the view in pixels.
+     * @param top    The top edge of the view in pixels.
+     */
+    public void setView(float left, float bottom, float right, float top) {
+        hasView = true;
+        viewLeft = left;
+        viewBottom = bottom;
+        viewRight = right;
+        viewTop = top;
+    }
+
+    /**
+     * Counts the enemies in an activity tier, as of the last step.
+     *
+     * @param tier `TIER_ACTIVE`, `TIER_MID` or `TIER_ASLEEP`.
+     * @return The number of enemies stepped every step, brought up to date by the last mid-range update, or neither.
+     */
+    public int getEnemyTierCount(int tier) {
+        switch (tier) {
+            case TIER_ACTIVE:
+                return activeEnemies.size;
+            case TIER_MID:
+                return midEnemyCount;
+            default:
+                return enemies.count - activeEnemies.size - midEnemyCount;
+        }
+    }
+
+    /**
+     * Like the world itself, the service may only be used from the thread stepping the world.
+     * The first call prepares it, which walks the whole maze.
+     *
+     * @return Finds ways between any two cells of the maze, or null if the maze is streamed in chunks,
+     * which would have to be loaded completely for it.
+     */
+    public PathfindingService getPathfinding() {
+        if (pathfinding == null && maze instanceof MazeGrid) {
+            pathfinding = new PathfindingService((MazeGrid) maze);
+        }
+        return pathfinding;
+    }
+
+    private void initializeEnemies() {
+        // Enemy spawns come from the map's index, so the map is not scanned
+        LevelIndex index = maze.getIndex();
+        int count = index.getCount(LevelIndex.ENEMY);
+        enemyHash = new SpatialHash(ENEMY_HASH_TILES_PER_CELL, count);
+        isNearby = new boolean[count];
+        isActive = new boolean[count];
+        midUpdate = new int[count];
+        hasHit = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            int enemy = enemies.add(index.getX(LevelIndex.ENEMY, i) * 16, index.getY(LevelIndex.ENEMY, i) * 16);
+            // Every enemy starts patrolling at the beginning of the level, when the patrol is at its lowest
+            enemies.patrolBaseY[enemy] = enemies.y[enemy] + PATROL_AMPLITUDE;
+            enemyHash.add(enemy, enemies.x[enemy], enemies.y[enemy]);
+        }
+    }
+
+    /**
+     * Find the entry point in the maze.
+     *
+     * @param maze The map representing the maze.
+     * @return The entry point as a Vector2.
+     */
+    private static Vector2 findEntryPoint(MazeMap maze) {
+        LevelIndex index = maze.getIndex();
+        if (index.hasEntry()) {
+            // Return the position directly, assuming bottom left as 0,0
+            return new Vector2(index.getEntryX(), index.getEntryY());
+        }
+        return new Vector2(0, 0); // Default to (0,0) if no entry point is found
+    }
+
+    /**
+     * Determines the character's direction based on the movement inputs.
+     *
+     * @param moveAmountX The change in the x-coordinate.
+     * @param moveAmountY The change in the y-coordinate.
+     * @return The character's direction.
+     */
+    private Character.Direction determineDirection(int moveAmountX, int moveAmountY) {
+        if (moveAmountX > 0) {
+            return Character.Direction.RIGHT;
+        } else if (moveAmountX < 0) {
+            return Character.Direction.LEFT;
+        } else if (moveAmountY > 0) {
+            return Character.Direction.UP;
+        } else if (moveAmountY < 0) {
+            return Character.Direction.DOWN;
+        }
+        return character.getCurrentDirection(); // Default to current direction if no movement
+    }
+
+    /**
+     * Handles the logic for heart loss and cooldown.
+     *
+     * @param byEnemy True if an enemy hit the character, false if it stepped on a trap.
+     */
+    private void handleHeartLoss(boolean byEnemy) {
+        listener.onLifeLost(byEnemy);
+        if (heartsStatus[0]) {
+            heartsStatus[0] = false;
+        } else if (heartsStatus[1]) {
+            heartsStatus[1] = false;
+        } else if (heartsStatus[2]) {
+            heartsStatus[2] = false;
+            isFinished = true;
+            listener.onGameOver();
+        }
+    }
+
+    /**
+     * Moves the character by the specified delta values as far as the walls allow, sliding along walls it runs into,
+     * and lets the traps, keys and exit it touched on the way take effect.
+     *
+     * @param moveDirectionX The change in the x-coordinate.
+     * @param moveDirectionY The change in the y-coordinate.
+     * @param delta          The time in seconds since the last update.
+     */
+    private void moveCharacter(int moveDirectionX, int moveDirectionY, float delta) {
+        // Scale movement by speed and time
+        float scaledMoveX = moveDirectionX * CHARACTER_SPEED * delta;
+        float scaledMoveY = moveDirectionY * CHARACTER_SPEED * delta;
+
+        // Slide as far as the walls allow, noting every trap, key and exit the character touches on the way
+        float startX = currentLocation.x;
+        float startY = currentLocation.y;
+        touchedTrap = false;
+        touchedKey = false;
+        touchedExit = false;
+        characterCollider.move(maze, currentLocation, scaledMoveX, scaledMoveY, touchCell);
+        character.getPosition().x = currentLocation.x * 16;
+        character.getPosition().y = currentLocation.y * 16;
+        if (currentLocation.x != startX || currentLocation.y != startY) {
+            updateCharacterDirection(moveDirectionX, moveDirectionY);
+        }
+
+        if (touchedTrap) {
+            handleInteraction(delta);
+            if (isFinished) {
+                return;
+            }
+        }
+        if (touchedKey && !hasKey) {
+            handleKeyPickup();
+        }
+        if (touchedExit && hasKey) {
+            isFinished = true;
+            listener.onGameWon(elapsedTime);
+        }
+    }
+
+    /**
+     * Notes what kind of cell the character touched while moving. Each kind takes effect once per step,
+     * however many such cells were touched.
+     *
+     * @param col  The column of the cell.
+     * @param row  The row of the cell.
+     * @param type The type of the cell.
+     */
+    private void touchCell(int col, int row, int type) {
+        switch (type) {
+            case 3: // Trap - Lose a heart
+            case 4: // Enemy - Lose a heart
+                touchedTrap = true;
+                break;
+            case 5: // Key - Pick up the key
+                touchedKey = true;
+                touchedKeyCol = col;
+                touchedKeyRow = row;
+                break;
+            case 2: // Exit - Win the game
+                touchedExit = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleInteraction(float delta) {
+        if (heartLossCooldownTimer <= 0) {
+            handleHeartLoss(false); // Handle heart loss logic
+            heartLossCooldownTimer = HEART_LOSS_COOLDOWN;
+        } else {
+            heartLossCooldownTimer -= delta;
+        }
+    }
+
+    private void handleKeyPickup() {
+        hasKey = true;
+        listener.onKeyCollected();
+        addNewKey(maze, touchedKeyCol, touchedKeyRow);
+    }
+
+    /**
+     * Updates the character's direction based on movement.
+     *
+     * @param deltaX The change in the x-coordinate.
+     * @param deltaY The change in the y-coordinate.
+     */
+    private void updateCharacterDirection(float deltaX, float deltaY) {
+        if (deltaX > 0) {
+            character.updateDirection(Character.Direction.RIGHT);
+        } else if (deltaX < 0) {
+            character.updateDirection(Character.Direction.LEFT);
+        } else if (deltaY > 0) {
+            character.updateDirection(Character.Direction.UP);
+        } else if (deltaY < 0) {
+            character.updateDirection(Character.Direction.DOWN);
+        }
+    }
+
+    /**
+     * Moves enemies towards the player or applies cooldowns if they hit the player.
+     * Chasing enemies follow the flow field around walls, and patrol if the field has no way to the player.
+     * <p>
+     * Only the active enemies are stepped: those the spatial hash finds near the player, and those chasing or
+     * recovering. A patrolling enemy's position follows from the time alone, so all other enemies can be left
+     * alone and placed where their patrol has taken them once they are needed again. Every few steps the
+     * mid-range enemies, near the player or in view, are placed like this, so they are ready to be drawn.
+     * <p>
+     * The step has two phases. First every active enemy picks its velocity, moves and notes whether it hit the
+     * player, looking only at itself, the player and the flow field, so large hordes are split into chunks that
+     * run in parallel. Then the hits take hearts and start the enemies' cooldowns one after another, since they
+     * change the shared game state and play sounds.
+     *
+     * @param playerPosition The player's position.
+     * @param delta          The time in seconds since the last update.
+     */
+    private void moveEnemies(Vector2 playerPosition, float delta) {
+        stepPlayerX = playerPosition.x;
+        stepPlayerY = playerPosition.y;
+        stepDelta = delta;
+        stepCosNow = (float) Math.cos(stateTime);
+        stepCosNext = (float) Math.cos(stateTime + delta);
+        updateActiveEnemies();
+
+        // The character stands in the cell under the middle of its feet
+        flowField.update(maze, (int) (currentLocation.x + 0.5f), (int) (currentLocation.y + CHARACTER_BOX_HEIGHT / 2));
+
+        int active = activeEnemies.size;
+        if (active > PARALLEL_ENEMY_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new EnemyChunk(0, active));
+        } else {
+            stepEnemies(0, active);
+        }
+
+        // Hits are handled in index order, like before the split
+        for (int n = 0; n < active; n++) {
+            int i = activeEnemies.get(n);
+            if (!hasHit[i]) {
+                continue;
+            }
+            handleHeartLoss(true);  // Handle heart loss logic
+            if (isFinished) {
+                return;
+            }
+
+            // Apply the cooldown for this specific enemy
+            enemies.state[i] = EnemyStore.RECOVERING;
+            enemies.cooldown[i] = HEART_LOSS_COOLDOWN;
+        }
+
+        for (int n = 0; n < active; n++) {
+            int i = activeEnemies.get(n);
+            enemyHash.update(i, enemies.x[i], enemies.y[i]);
+        }
+        if (++steps % MID_TICK_STEPS == 0) {
+            updateMidEnemies();
+        }
+    }
+
+    /**
+     * Sorts out which enemies are active this step. Enemies within reach of the player wake up where their patrol
+     * has taken them; enemies that patrol out of reach fall asleep.
+     */
+    private void updateActiveEnemies() {
+        enemyHash.query(stepPlayerX, stepPlayerY, ENEMY_ACTIVE_DISTANCE, nearbyEnemies);
+        for (int n = 0; n < nearbyEnemies.size; n++) {
+            isNearby[nearbyEnemies.get(n)] = true;
+        }
+
+        // Enemies stay active while chasing or recovering, wherever the player is
+        nextActiveEnemies.clear();
+        for (int n = 0; n < activeEnemies.size; n++) {
+            int i = activeEnemies.get(n);
+            if (isNearby[i] || enemies.state[i] != EnemyStore.PATROLLING) {
+                nextActiveEnemies.add(i);
+            } else {
+                isActive[i] = false;
+            }
+        }
+        for (int n = 0; n < nearbyEnemies.size; n++) {
+            int i = nearbyEnemies.get(n);
+            isNearby[i] = false;
+            if (!isActive[i]) {
+                isActive[i] = true;
+                nextActiveEnemies.add(i);
+                enemies.markMoved(i);
+                enemies.y[i] = enemies.patrolBaseY[i] - PATROL_AMPLITUDE * stepCosNow;
+            }
+        }
+
+        IntArray swap = activeEnemies;
+        activeEnemies = nextActiveEnemies;
+        nextActiveEnemies = swap;
+        activeEnemies.sort();
+        // Marked here, since the enemies may be moved by several threads
+        for (int n = 0; n < activeEnemies.size; n++) {
+            enemies.markMoved(activeEnemies.get(n));
+        }
+    }
+
+    /**
+     * Places the sleeping enemies near the player or in view where their patrol has taken them by the end of
+     * the step. Their patrol only depends on the time, so the skipped steps are caught up on exactly.
+     */
+    private void updateMidEnemies() {
+        midUpdates++;
+        midEnemyCount = 0;
+        enemyHash.query(stepPlayerX, stepPlayerY, ENEMY_MID_DISTANCE, midEnemies);
+        catchUp(midEnemies);
+        if (hasView) {
+            enemyHash.queryRect(viewLeft - VIEW_MARGIN, viewBottom - VIEW_MARGIN,
+                    viewRight + VIEW_MARGIN, viewTop + VIEW_MARGIN, midEnemies);
+            catchUp(midEnemies);
+        }
+    }
+
+    private void catchUp(IntArray found) {
+        for (int n = 0; n < found.size; n++) {
+            int i = found.get(n);
+            if (isActive[i] || midUpdate[i] == midUpdates) {
+                continue;
+            }
+            midUpdate[i] = midUpdates;
+            midEnemyCount++;
+            enemies.markMoved(i);
+            enemies.y[i] = enemies.patrolBaseY[i] - PATROL_AMPLITUDE * stepCosNext;
+            enemyHash.update(i, enemies.x[i], enemies.y[i]);
+        }
+    }
+
+    /**
+     * Picks the velocity of a range of the active enemies and moves them. Every enemy only writes its own entries,
+     * so ranges can be computed by different threads at the same time.
+     *
+     * @param from The position in the active list of the first enemy.
+     * @param to   The position in the active list after the last enemy.
+     */
+    private void stepEnemies(int from, int to) {
+        int[] active = activeEnemies.items;
+        float[] x = enemies.x;
+        float[] y = enemies.y;
+        float[] velocityX = enemies.velocityX;
+        float[] velocityY = enemies.velocityY;
+        float[] cooldown = enemies.cooldown;
+        float[] patrolBaseY = enemies.patrolBaseY;
+        int[] state = enemies.state;
+
+        for (int n = from; n < to; n++) {
+            int i = active[n];
+            hasHit[i] = false;
+
+            // Check if the enemy is resting after a hit
+            if (state[i] == EnemyStore.RECOVERING) {
+                if (cooldown[i] > 0) {
+                    // Decrement the cooldown timer and skip the enemy movement
+                    cooldown[i] -= stepDelta;
+                    velocityX[i] = 0;
+                    velocityY[i] = 0;
+                    continue;
+                }
+                // Cooldown has elapsed, the enemy moves again
+            }
+
+            float deltaX = stepPlayerX - x[i];
+            float deltaY = stepPlayerY - y[i];
+            float distance2 = deltaX * deltaX + deltaY * deltaY;
+            boolean nearby = distance2 < ENEMY_CHASE_DISTANCE * ENEMY_CHASE_DISTANCE;
+            if (nearby && distance2 < ENEMY_HIT_DISTANCE * ENEMY_HIT_DISTANCE) {
+                // Enemy hits the character; it stops here and the hit is handled after all enemies moved
+                hasHit[i] = true;
+                velocityX[i] = 0;
+                velocityY[i] = 0;
+            } else if (nearby && chase(i)) {
+                state[i] = EnemyStore.CHASING;
+                x[i] += velocityX[i] * stepDelta;
+                y[i] += velocityY[i] * stepDelta;
+            } else {
+                // Move up and down until the character is close, around where the enemy stopped chasing
+                if (state[i] != EnemyStore.PATROLLING) {
+                    state[i] = EnemyStore.PATROLLING;
+                    patrolBaseY[i] = y[i] + PATROL_AMPLITUDE * stepCosNow;
+                }
+                velocityX[i] = 0;
+                velocityY[i] = 0;
+                y[i] = patrolBaseY[i] - PATROL_AMPLITUDE * stepCosNext;
+            }
+        }
+    }
+
+    /**
+     * Points an enemy's velocity at the next cell on the way to the character, or at the character
+     * once they share a cell.
+     *
+     * @param enemy The index of the enemy.
+     * @return False if the flow field has no way from the enemy to the character.
+     */
+    private boolean chase(int enemy) {
+        // The cell under the middle of the enemy's sprite
+        int col = (int) Math.floor((enemies.x[enemy] + 8) / 16);
+        int row = (int) Math.floor((enemies.y[enemy] + 8) / 16);
+        int direction = flowField.getDirection(col, row);
+        if (direction == FlowField.UNREACHABLE) {
+            return false;
+        }
+
+        float targetX = stepPlayerX;
+        float targetY = stepPlayerY;
+        if (direction != FlowField.ARRIVED) {
+            targetX = (col + FlowField.getStepCol(direction)) * 16;
+            targetY = (row + FlowField.getStepRow(direction)) * 16;
+        }
+        float deltaX = targetX - enemies.x[enemy];
+        float deltaY = targetY - enemies.y[enemy];
+        float length = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        if (length < 0.01f) {
+            enemies.velocityX[enemy] = 0;
+            enemies.velocityY[enemy] = 0;
+        } else {
+            enemies.velocityX[enemy] = deltaX / length * ENEMY_CHASE_SPEED;
+            enemies.velocityY[enemy] = deltaY / length * ENEMY_CHASE_SPEED;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a new key to the maze when the player collects one, on the first floor cell next to the collected key.
+     * If none of the neighboring cells is floor, no key is added, so exits and traps are never covered.
+     *
+     * @param maze   The map representing the maze.
+     * @param keyCol The column of the collected key.
+     * @param keyRow The row of the collected key.
+     */
+    private void addNewKey(MazeMap maze, int keyCol, int keyRow) {
+        // Define the possible directions next to the key where the new key can be placed
+        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+
+        for (int[] direction : directions) {
+            int newCol = keyCol + direction[0];
+            int newRow = keyRow + direction[1];
+
+            // Check if the new position is within the maze boundaries and is a floor cell
+            if (newRow >= 0 && newRow < maze.getHeight() && newCol >= 0 && newCol < maze.getWidth() && maze.getCell(newCol, newRow) == 6) {
+                maze.setCell(newCol, newRow, 5); // '5' is the key cell type; the level index picks it up
+                return;
+            }
+        }
+    }
+
+    /**
+     * The `EnemyChunk` class steps a range of enemies, splitting it in halves for other threads until the pieces
+     * are one chunk long.
+     */
+    private class EnemyChunk extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+
+        EnemyChunk(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ENEMY_CHUNK_SIZE) {
+                stepEnemies(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EnemyChunk(from, middle), new EnemyChunk(middle, to));
+        }
+    }
+}
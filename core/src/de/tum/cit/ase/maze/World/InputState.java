@@ -0,0 +1,61 @@
+package de.tum.cit.ase.maze.World;
+
+/**
+ * The `InputState` class holds what the player asks for during one simulation step.
+ * The game screen fills it from the keyboard, so the world itself never reads input devices
+ * and can be driven by anything else, like a recording or a benchmark.
+ */
+public class InputState {
+
+    // Bits of the arrow keys in `getBits`, as stored in replays
+    public static final int UP = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 4;
+    public static final int RIGHT = 8;
+
+    private int moveX;
+    private int moveY;
+
+    /**
+     * Sets the direction the player wants to move in.
+     *
+     * @param moveX -1 for left, 1 for right, 0 for neither.
+     * @param moveY -1 for down, 1 for up, 0 for neither.
+     */
+    public void setMove(int moveX, int moveY) {
+        this.moveX = moveX;
+        this.moveY = moveY;
+    }
+
+    /**
+     * @return -1 for left, 1 for right, 0 for neither.
+     */
+    public int getMoveX() {
+        return moveX;
+    }
+
+    /**
+     * @return -1 for down, 1 for up, 0 for neither.
+     */
+    public int getMoveY() {
+        return moveY;
+    }
+
+    /**
+     * @return The arrow keys this input asks for, as a combination of `UP`, `DOWN`, `LEFT` and `RIGHT`.
+     */
+    public int getBits() {
+        return (moveY > 0 ? UP : 0) | (moveY < 0 ? DOWN : 0) | (moveX < 0 ? LEFT : 0) | (moveX > 0 ? RIGHT : 0);
+    }
+
+    /**
+     * Sets the direction from arrow key bits. When opposite keys are both set, up and left win,
+     * like they do when reading the keyboard.
+     *
+     * @param bits A combination of `UP`, `DOWN`, `LEFT` and `RIGHT`.
+     */
+    public void setBits(int bits) {
+        moveX = (bits & LEFT) != 0 ? -1 : (bits & RIGHT) != 0 ? 1 : 0;
+        moveY = (bits & UP) != 0 ? 1 : (bits & DOWN) != 0 ? -1 : 0;
+    }
+}
@@ -0,0 +1,229 @@
+package de.tum.cit.ase.maze.World;
+
+import de.tum.cit.ase.maze.Map.MazeMap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The `Replay` class records the input of a play session, step by step, so the session can be played again exactly.
+ * Since the game world only changes through `GameWorld.step`, the level and the input of every step are enough
+ * to repeat a session. The arrow keys of each step are stored as four bits, and runs of steps with the same keys
+ * are stored once with their length, so even long sessions take only a few kilobytes.
+ * <p>
+ * The file starts with the magic number "MZRP", a version byte, the level's map path, a seed, the number of
+ * simulation steps per second and the number of steps, followed by runs of a key bits byte and a variable length
+ * run length.
+ */
+public class Replay {
+
+    public static final String EXTENSION = "replay";
+
+    private static final int MAGIC = 0x4d5a5250; // "MZRP"
+    private static final int VERSION = 1;
+
+    private final String levelId;
+    private final long seed;
+    private final int stepsPerSecond;
+
+    private byte[] runBits = new byte[64];
+    private int[] runLengths = new int[64];
+    private int runCount;
+    private int stepCount;
+
+    /**
+     * Creates an empty replay to record into.
+     *
+     * @param levelId        The path of the map the session is played on.
+     * @param seed           The seed the session was started with.
+     * @param stepsPerSecond How many simulation steps make one second of the session.
+     */
+    public Replay(String levelId, long seed, int stepsPerSecond) {
+        this.levelId = levelId;
+        this.seed = seed;
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    /**
+     * Adds the input of the next step.
+     *
+     * @param input The input the step was simulated with.
+     */
+    public void record(InputState input) {
+        byte bits = (byte) input.getBits();
+        if (runCount > 0 && runBits[runCount - 1] == bits) {
+            runLengths[runCount - 1]++;
+            stepCount++;
+        } else {
+            addRun(bits, 1);
+        }
+    }
+
+    /**
+     * @return The path of the map the session is played on.
+     */
+    public String getLevelId() {
+        return levelId;
+    }
+
+    /**
+     * @return The seed the session was started with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return How many simulation steps make one second of the session.
+     */
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * @return The number of recorded steps.
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * @return A player that hands out the recorded input from the first step on.
+     */
+    public Player play() {
+        return new Player();
+    }
+
+    /**
+     * Plays the whole replay as fast as possible, without drawing or waiting between steps.
+     *
+     * @param maze     A fresh copy of the replay's level.
+     * @param listener Receives what happens during the session.
+     * @return The world after the last recorded step, or after the step that won or lost the game.
+     */
+    public GameWorld playHeadless(MazeMap maze, WorldListener listener) {
+        GameWorld world = new GameWorld(maze, listener);
+        InputState input = new InputState();
+        Player player = play();
+        float step = 1f / stepsPerSecond;
+        while (!world.isFinished() && player.next(input)) {
+            world.step(input, step);
+        }
+        return world;
+    }
+
+    /**
+     * Writes the replay to a stream. The stream is not closed.
+     *
+     * @param stream Where to write the replay.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(levelId);
+        out.writeLong(seed);
+        out.writeShort(stepsPerSecond);
+        out.writeInt(stepCount);
+        for (int i = 0; i < runCount; i++) {
+            out.writeByte(runBits[i]);
+            writeVarInt(out, runLengths[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a replay written by `write`.
+     *
+     * @param stream Where to read the replay from. The stream is not closed.
+     * @return The replay.
+     * @throws IOException If the stream cannot be read or does not hold a replay.
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        Replay replay = new Replay(in.readUTF(), in.readLong(), in.readUnsignedShort());
+        int stepCount = in.readInt();
+        while (replay.stepCount < stepCount) {
+            byte bits = in.readByte();
+            int length = readVarInt(in);
+            if (length <= 0 || length > stepCount - replay.stepCount) {
+                throw new IOException("Corrupt replay run of " + length + " steps");
+            }
+            replay.addRun(bits, length);
+        }
+        return replay;
+    }
+
+    private void addRun(byte bits, int length) {
+        if (runCount == runBits.length) {
+            runBits = Arrays.copyOf(runBits, runCount * 2);
+            runLengths = Arrays.copyOf(runLengths, runCount * 2);
+        }
+        runBits[runCount] = bits;
+        runLengths[runCount] = length;
+        runCount++;
+        stepCount += length;
+    }
+
+    /**
+     * Writes seven bits per byte, lowest first, with the top bit set on every byte but the last.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt replay run length");
+    }
+
+    /**
+     * The `Player` class walks through the recorded steps of a replay in order.
+     */
+    public class Player {
+
+        private int run;
+        private int stepInRun;
+
+        /**
+         * Moves to the next recorded step.
+         *
+         * @param input Receives the input of the step.
+         * @return False if all recorded steps have been played; the input is left unchanged then.
+         */
+        public boolean next(InputState input) {
+            if (run == runCount) {
+                return false;
+            }
+            input.setBits(runBits[run]);
+            if (++stepInRun == runLengths[run]) {
+                run++;
+                stepInRun = 0;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package de.tum.cit.ase.maze.World;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The `SpatialHash` class finds the entities near a point without looking at all of them.
+ * The world is divided into square cells of a few tiles, and every entity is listed in the cell it stands in.
+ * A search only looks at the entities listed in the cells that overlap the search circle, so its cost depends
+ * on how crowded that area is rather than on how many entities the level has.
+ * <p>
+ * Cells are hashed into a fixed table, so entities may wander outside the maze. Every entity is kept in a
+ * doubly linked list through arrays, so moving an entity into another cell is a constant time unlink and link,
+ * and moving within its cell only stores the new position.
+ */
+public class SpatialHash {
+
+    private static final int TILE_SIZE = 16;
+    private static final int NONE = -1;
+
+    private final float cellsPerPixel;
+    private final int[] heads;
+    private final int mask;
+
+    // Per entity: position, cell coordinates, table slot and its neighbors in the slot's list
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private int[] slot = new int[0];
+    private int[] next = new int[0];
+    private int[] previous = new int[0];
+
+    // Per table slot, the last query that searched it, so a slot shared by two cells is searched once
+    private final int[] slotStamp;
+    private int queryStamp = 0;
+
+    /**
+     * Creates an empty hash.
+     *
+     * @param tilesPerCell The width of a cell in tiles. Searches are cheapest when the cells are about as wide
+     *                     as the usual search radius.
+     * @param tableSize    The number of table slots, rounded up to a power of two. About the number of entities.
+     */
+    public SpatialHash(int tilesPerCell, int tableSize) {
+        cellsPerPixel = 1f / (tilesPerCell * TILE_SIZE);
+        int size = Integer.highestOneBit(Math.max(tableSize, 16) - 1) << 1;
+        heads = new int[size];
+        mask = size - 1;
+        Arrays.fill(heads, NONE);
+        slotStamp = new int[size];
+    }
+
+    /**
+     * Adds an entity. Ids should be small and dense, like indices into a list, since arrays are sized by them.
+     *
+     * @param id The id of the entity, not already in the hash.
+     * @param px The x-coordinate of the entity in pixels.
+     * @param py The y-coordinate of the entity in pixels.
+     */
+    public void add(int id, float px, float py) {
+        if (id >= x.length) {
+            grow(id + 1);
+        }
+        x[id] = px;
+        y[id] = py;
+        cellX[id] = cellOf(px);
+        cellY[id] = cellOf(py);
+        link(id);
+    }
+
+    /**
+     * Moves an entity. It only changes lists when the entity crosses into another cell.
+     *
+     * @param id The id of the entity.
+     * @param px The new x-coordinate in pixels.
+     * @param py The new y-coordinate in pixels.
+     */
+    public void update(int id, float px, float py) {
+        x[id] = px;
+        y[id] = py;
+        int newCellX = cellOf(px);
+        int newCellY = cellOf(py);
+        if (newCellX != cellX[id] || newCellY != cellY[id]) {
+            unlink(id);
+            cellX[id] = newCellX;
+            cellY[id] = newCellY;
+            link(id);
+        }
+    }
+
+    /**
+     * Removes an entity.
+     *
+     * @param id The id of the entity.
+     */
+    public void remove(int id) {
+        unlink(id);
+    }
+
+    /**
+     * Finds the entities closer than a radius to a point, comparing squared distances.
+     *
+     * @param px     The x-coordinate of the point in pixels.
+     * @param py     The y-coordinate of the point in pixels.
+     * @param radius The search radius in pixels.
+     * @param result Cleared, then receives the ids of the entities found, in no particular order.
+     */
+    public void query(float px, float py, float radius, IntArray result) {
+        result.clear();
+        float radius2 = radius * radius;
+        int minCellX = cellOf(px - radius);
+        int maxCellX = cellOf(px + radius);
+        int minCellY = cellOf(py - radius);
+        int maxCellY = cellOf(py + radius);
+        long cells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+        if (cells > heads.length) {
+            // Wider than the table: every slot is searched once
+            for (int s = 0; s < heads.length; s++) {
+                collectWithin(s, px, py, radius2, result);
+            }
+            return;
+        }
+        int stamp = nextQueryStamp();
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int s = slotOf(cx, cy);
+                if (slotStamp[s] == stamp) {
+                    continue;
+                }
+                slotStamp[s] = stamp;
+                collectWithin(s, px, py, radius2, result);
+            }
+        }
+    }
+
+    /**
+     * Finds the entities inside a rectangle, such as the part of the world the camera sees.
+     *
+     * @param left   The left edge of the rectangle in pixels.
+     * @param bottom The bottom edge of the rectangle in pixels.
+     * @param right  The right edge of the rectangle in pixels.
+     * @param top    The top edge of the rectangle in pixels.
+     * @param result Cleared, then receives the ids of the entities found, in no particular order.
+     */
+    public void queryRect(float left, float bottom, float right, float top, IntArray result) {
+        result.clear();
+        int minCellX = cellOf(left);
+        int maxCellX = cellOf(right);
+        int minCellY = cellOf(bottom);
+        int maxCellY = cellOf(top);
+        long cells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+        if (cells > heads.length) {
+            // Wider than the table, for example when zoomed far out: every slot is searched once
+            for (int s = 0; s < heads.length; s++) {
+                collectInside(s, left, bottom, right, top, result);
+            }
+            return;
+        }
+        int stamp = nextQueryStamp();
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int s = slotOf(cx, cy);
+                if (slotStamp[s] == stamp) {
+                    continue;
+                }
+                slotStamp[s] = stamp;
+                collectInside(s, left, bottom, right, top, result);
+            }
+        }
+    }
+
+    private void collectWithin(int s, float px, float py, float radius2, IntArray result) {
+        for (int id = heads[s]; id != NONE; id = next[id]) {
+            float dx = x[id] - px;
+            float dy = y[id] - py;
+            if (dx * dx + dy * dy < radius2) {
+                result.add(id);
+            }
+        }
+    }
+
+    private void collectInside(int s, float left, float bottom, float right, float top, IntArray result) {
+        for (int id = heads[s]; id != NONE; id = next[id]) {
+            if (x[id] >= left && x[id] <= right && y[id] >= bottom && y[id] <= top) {
+                result.add(id);
+            }
+        }
+    }
+
+    private int nextQueryStamp() {
+        queryStamp++;
+        if (queryStamp == 0) {
+            // After billions of queries the stamps wrap around, and old stamps could be taken for new ones
+            Arrays.fill(slotStamp, 0);
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private int cellOf(float coordinate) {
+        // Rounds down, also for negative coordinates, without going through double
+        float cells = coordinate * cellsPerPixel;
+        int cell = (int) cells;
+        return cells < cell ? cell - 1 : cell;
+    }
+
+    private int slotOf(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & mask;
+    }
+
+    private void link(int id) {
+        int s = slotOf(cellX[id], cellY[id]);
+        slot[id] = s;
+        previous[id] = NONE;
+        next[id] = heads[s];
+        if (heads[s] != NONE) {
+            previous[heads[s]] = id;
+        }
+        heads[s] = id;
+    }
+
+    private void unlink(int id) {
+        if (previous[id] != NONE) {
+            next[previous[id]] = next[id];
+        } else {
+            heads[slot[id]] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+    }
+
+    private void grow(int minimum) {
+        int size = Math.max(minimum, x.length * 2);
+        x = Arrays.copyOf(x, size);
+        y = Arrays.copyOf(y, size);
+        cellX = Arrays.copyOf(cellX, size);
+        cellY = Arrays.copyOf(cellY, size);
+        slot = Arrays.copyOf(slot, size);
+        next = Arrays.copyOf(next, size);
+        previous = Arrays.copyOf(previous, size);
+    }
+}
@@ -0,0 +1,200 @@
+package de.tum.cit.ase.maze.World;
+
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.ase.maze.Map.MazeMap;
+
+/**
+ * The `TileCollider` class moves a box through the maze without letting it enter walls, measured in cells.
+ * The box moves along x first and then along y, and along each axis every column or row it would sweep over
+ * is checked, so however far it moves in one step it stops flush against the first wall in its way instead
+ * of skipping over it or clipping a corner. Blocked along one axis, it still slides along the other.
+ * <p>
+ * Every cell the box touches during the move, including where it started, is reported once to a visitor,
+ * so traps, keys and the exit can react to all of them. Moving allocates nothing.
+ */
+public class TileCollider {
+
+    // Edges closer than this to a cell border count as on the border, so a box stopped flush against
+    // a wall does not overlap it because of rounding
+    private static final float EPSILON = 1e-4f;
+
+    /**
+     * The `CellVisitor` interface receives the cells a box touched during a move.
+     */
+    public interface CellVisitor {
+
+        /**
+         * @param col  The column of the cell.
+         * @param row  The row of the cell.
+         * @param type The type of the cell.
+         */
+        void visit(int col, int row, int type);
+    }
+
+    private final float offsetX;
+    private final float offsetY;
+    private final float width;
+    private final float height;
+
+    /**
+     * Creates a collider for a box that moves with a position, such as the bottom left corner of a sprite.
+     *
+     * @param offsetX How far right of the position the box starts, in cells.
+     * @param offsetY How far above the position the box starts, in cells.
+     * @param width   The width of the box in cells.
+     * @param height  The height of the box in cells.
+     */
+    public TileCollider(float offsetX, float offsetY, float width, float height) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Moves the box as far as the walls let it, first along x, then along y.
+     * The edges of the maze count as walls.
+     *
+     * @param maze     The map representing the maze.
+     * @param position The position the box moves with, in cells. Changed to where the box stopped.
+     * @param moveX    How far to move along x, in cells.
+     * @param moveY    How far to move along y, in cells.
+     * @param visitor  Receives every cell inside the maze the box touched, once each; may be null.
+     */
+    public void move(MazeMap maze, Vector2 position, float moveX, float moveY, CellVisitor visitor) {
+        float startX = position.x + offsetX;
+        float startY = position.y + offsetY;
+        float endX = sweepX(maze, startX, startY, moveX);
+        float endY = sweepY(maze, endX, startY, moveY);
+        position.x = endX - offsetX;
+        position.y = endY - offsetY;
+        if (visitor == null) {
+            return;
+        }
+
+        // The area swept along x, at the starting height
+        int sweptMinCol = firstCell(Math.min(startX, endX));
+        int sweptMaxCol = lastCell(Math.max(startX, endX) + width);
+        int startMinRow = firstCell(startY);
+        int startMaxRow = lastCell(startY + height);
+        visitCells(maze, sweptMinCol, startMinRow, sweptMaxCol, startMaxRow, visitor);
+
+        // The area swept along y, without the cells already visited
+        int endMinCol = firstCell(endX);
+        int endMaxCol = lastCell(endX + width);
+        int sweptMinRow = firstCell(Math.min(startY, endY));
+        int sweptMaxRow = lastCell(Math.max(startY, endY) + height);
+        for (int row = Math.max(sweptMinRow, 0); row <= Math.min(sweptMaxRow, maze.getHeight() - 1); row++) {
+            boolean visitedRow = row >= startMinRow && row <= startMaxRow;
+            for (int col = Math.max(endMinCol, 0); col <= Math.min(endMaxCol, maze.getWidth() - 1); col++) {
+                if (!visitedRow || col < sweptMinCol || col > sweptMaxCol) {
+                    visitor.visit(col, row, maze.getCell(col, row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the box would overlap a wall or leave the maze at a position.
+     *
+     * @param maze     The map representing the maze.
+     * @param position The position the box moves with, in cells.
+     * @return True if any cell under the box is a wall or outside the maze.
+     */
+    public boolean isBlocked(MazeMap maze, Vector2 position) {
+        int minRow = firstCell(position.y + offsetY);
+        int maxRow = lastCell(position.y + offsetY + height);
+        for (int col = firstCell(position.x + offsetX); col <= lastCell(position.x + offsetX + width); col++) {
+            if (isBlockedColumn(maze, col, minRow, maxRow)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private float sweepX(MazeMap maze, float x, float y, float move) {
+        if (move == 0) {
+            return x;
+        }
+        int minRow = firstCell(y);
+        int maxRow = lastCell(y + height);
+        if (move > 0) {
+            for (int col = lastCell(x + width) + 1; col <= lastCell(x + width + move); col++) {
+                if (isBlockedColumn(maze, col, minRow, maxRow)) {
+                    return col - width; // Flush against the wall's left side
+                }
+            }
+        } else {
+            for (int col = firstCell(x) - 1; col >= firstCell(x + move); col--) {
+                if (isBlockedColumn(maze, col, minRow, maxRow)) {
+                    return col + 1; // Flush against the wall's right side
+                }
+            }
+        }
+        return x + move;
+    }
+
+    private float sweepY(MazeMap maze, float x, float y, float move) {
+        if (move == 0) {
+            return y;
+        }
+        int minCol = firstCell(x);
+        int maxCol = lastCell(x + width);
+        if (move > 0) {
+            for (int row = lastCell(y + height) + 1; row <= lastCell(y + height + move); row++) {
+                if (isBlockedRow(maze, row, minCol, maxCol)) {
+                    return row - height; // Flush against the wall's bottom side
+                }
+            }
+        } else {
+            for (int row = firstCell(y) - 1; row >= firstCell(y + move); row--) {
+                if (isBlockedRow(maze, row, minCol, maxCol)) {
+                    return row + 1; // Flush against the wall's top side
+                }
+            }
+        }
+        return y + move;
+    }
+
+    private static boolean isBlockedColumn(MazeMap maze, int col, int minRow, int maxRow) {
+        if (col < 0 || col >= maze.getWidth() || minRow < 0 || maxRow >= maze.getHeight()) {
+            return true;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            if (maze.getCell(col, row) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlockedRow(MazeMap maze, int row, int minCol, int maxCol) {
+        if (row < 0 || row >= maze.getHeight() || minCol < 0 || maxCol >= maze.getWidth()) {
+            return true;
+        }
+        for (int col = minCol; col <= maxCol; col++) {
+            if (maze.getCell(col, row) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void visitCells(MazeMap maze, int minCol, int minRow, int maxCol, int maxRow, CellVisitor visitor) {
+        for (int row = Math.max(minRow, 0); row <= Math.min(maxRow, maze.getHeight() - 1); row++) {
+            for (int col = Math.max(minCol, 0); col <= Math.min(maxCol, maze.getWidth() - 1); col++) {
+                visitor.visit(col, row, maze.getCell(col, row));
+            }
+        }
+    }
+
+    // The cell containing the lower edge of a box
+    private static int firstCell(float edge) {
+        return (int) Math.floor(edge + EPSILON);
+    }
+
+    // The cell containing the upper edge of a box, which itself belongs to the next cell
+    private static int lastCell(float edge) {
+        return (int) Math.ceil(edge - EPSILON) - 1;
+    }
+}
@@ -0,0 +1,32 @@
+package de.tum.cit.ase.maze.World;
+
+/**
+ * The `WorldListener` interface is how the game world tells the view what happened during a step,
+ * so the view can play sounds and switch screens without the world knowing about either.
+ */
+public interface WorldListener {
+
+    /**
+     * Called when the character loses a heart to a trap or an enemy.
+     *
+     * @param byEnemy True if an enemy hit the character, false if it stepped on a trap.
+     */
+    void onLifeLost(boolean byEnemy);
+
+    /**
+     * Called when the character picks up a key.
+     */
+    void onKeyCollected();
+
+    /**
+     * Called when the character loses the last heart. The world does not change after this.
+     */
+    void onGameOver();
+
+    /**
+     * Called when the character reaches an exit with a key. The world does not change after this.
+     *
+     * @param elapsedTime The time in seconds the level took.
+     */
+    void onGameWon(float elapsedTime);
+}
@@ -0,0 +1,55 @@
+package de.tum.cit.ase.maze.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for `BinaryMapLoader`, and that the shipped binary levels are the same as their text sources.
+ */
+class BinaryMapLoaderTest {
+
+    @Test
+    void shippedBinaryLevelsMatchTheirSources() throws IOException {
+        // The game plays the binary files; run MapConverter on the sources whenever they are edited
+        for (int level = 1; level <= 5; level++) {
+            String sourceName = "maps/level-" + level + ".properties";
+            MazeGrid source = StreamingMapParser.parse(sourceName);
+            MazeGrid binary = BinaryMapLoader.load("maps/level-" + level + ".maze");
+
+            assertEquals(source.getWidth(), binary.getWidth(), sourceName + " width");
+            assertEquals(source.getHeight(), binary.getHeight(), sourceName + " height");
+            assertArrayEquals(source.getCells(), binary.getCells(), sourceName + " is newer than its binary file");
+        }
+    }
+
+    @Test
+    void readsWhatTheConverterWrites() throws IOException {
+        MazeGrid maze = new MazeGrid(5, 3, 6);
+        maze.setCell(0, 0, 1);
+        maze.setCell(4, 2, 2);
+        maze.setCell(2, 1, 0);
+        maze.setCell(3, 1, 5);
+        Path file = Files.createTempFile("level", ".maze");
+        try {
+            MapConverter.writeBinary(maze, file.toString());
+            MazeGrid loaded = BinaryMapLoader.load(file.toString());
+
+            assertArrayEquals(maze.getCells(), loaded.getCells());
+            assertEquals(1, loaded.getIndex().getCount(LevelIndex.KEY));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotBinaryMaps() {
+        assertThrows(IOException.class, () -> BinaryMapLoader.load("maps/level-1.properties"));
+    }
+}
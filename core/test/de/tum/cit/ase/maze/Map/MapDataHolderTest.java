@@ -0,0 +1,43 @@
+package de.tum.cit.ase.maze.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests that `MapDataHolder` closes the maps it stops holding.
+ */
+class MapDataHolderTest {
+
+    @Test
+    void closesThePreviousMapOnce() {
+        ClosingGrid first = new ClosingGrid();
+        ClosingGrid second = new ClosingGrid();
+
+        MapDataHolder.setSelectedMap(first);
+        MapDataHolder.setSelectedMap(first); // Selecting the same map again keeps it open
+        assertEquals(0, first.closeCount);
+
+        MapDataHolder.setSelectedMap(second);
+        assertEquals(1, first.closeCount);
+        assertEquals(0, second.closeCount);
+
+        MapDataHolder.setSelectedMap(null);
+        assertEquals(1, second.closeCount);
+        assertNull(MapDataHolder.getSelectedMap());
+    }
+
+    private static class ClosingGrid extends MazeGrid {
+        private int closeCount;
+
+        ClosingGrid() {
+            super(2, 2, 6);
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
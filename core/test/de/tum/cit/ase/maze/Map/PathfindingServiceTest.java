@@ -0,0 +1,166 @@
+package de.tum.cit.ase.maze.Map;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for `PathfindingService`, on small grids made of several sectors.
+ */
+class PathfindingServiceTest {
+
+    private static final int SECTOR_SIZE = 4;
+
+    @Test
+    void findsAWayAcrossSectorsAroundWalls() {
+        MazeGrid grid = new MazeGrid(20, 12, 6);
+        for (int y = 0; y < 11; y++) {
+            grid.setCell(9, y, 0); // A wall with a gap at the top
+        }
+        PathfindingService pathfinding = new PathfindingService(grid, SECTOR_SIZE);
+        IntArray path = new IntArray();
+
+        assertTrue(pathfinding.findPath(1, 1, 18, 1, path));
+        assertWalkable(grid, path, 1, 1, 18, 1);
+        assertTrue(path.size - 1 >= 17 + 2 * 10, "Cannot be shorter than the way through the gap");
+    }
+
+    @Test
+    void findsNoWayThroughAClosedWall() {
+        MazeGrid grid = new MazeGrid(20, 12, 6);
+        for (int y = 0; y < 12; y++) {
+            grid.setCell(9, y, 0);
+        }
+        PathfindingService pathfinding = new PathfindingService(grid, SECTOR_SIZE);
+        IntArray path = new IntArray();
+
+        assertFalse(pathfinding.findPath(1, 1, 18, 1, path));
+        assertFalse(pathfinding.findPath(9, 5, 1, 1, path), "The start is a wall");
+        assertFalse(pathfinding.findPath(1, 1, 20, 1, path), "The goal is outside the maze");
+    }
+
+    @Test
+    void seesWallsChangedAfterItWasCreated() {
+        MazeGrid grid = new MazeGrid(20, 12, 6);
+        for (int y = 0; y < 12; y++) {
+            grid.setCell(9, y, 0);
+        }
+        PathfindingService pathfinding = new PathfindingService(grid, SECTOR_SIZE);
+        IntArray path = new IntArray();
+        assertFalse(pathfinding.findPath(1, 1, 18, 1, path));
+
+        grid.setCell(9, 6, 6);
+        assertTrue(pathfinding.findPath(1, 1, 18, 1, path));
+        assertWalkable(grid, path, 1, 1, 18, 1);
+
+        // The way just found is remembered, but must not be used once the gap is closed again
+        grid.setCell(9, 6, 0);
+        assertFalse(pathfinding.findPath(1, 1, 18, 1, path));
+    }
+
+    @Test
+    void catchingUpGivesTheSameWaysAsBuildingAgain() {
+        Random random = new Random(21);
+        MazeGrid grid = new MazeGrid(37, 29, 6);
+        for (int i = 0; i < 300; i++) {
+            grid.setCell(random.nextInt(37), random.nextInt(29), 0);
+        }
+        PathfindingService caughtUp = new PathfindingService(grid, SECTOR_SIZE);
+        IntArray expected = new IntArray();
+        IntArray actual = new IntArray();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                grid.setCell(random.nextInt(37), random.nextInt(29), random.nextBoolean() ? 0 : 6);
+            }
+            for (int i = 0; i < 20; i++) {
+                int startCol = random.nextInt(37);
+                int startRow = random.nextInt(29);
+                int goalCol = random.nextInt(37);
+                int goalRow = random.nextInt(29);
+                boolean found = caughtUp.findWaypoints(startCol, startRow, goalCol, goalRow, actual);
+                // Built from the current walls; the caught up service has already read the changes
+                PathfindingService rebuilt = new PathfindingService(grid, SECTOR_SIZE);
+                assertEquals(rebuilt.findWaypoints(startCol, startRow, goalCol, goalRow, expected), found);
+                assertEquals(rebuilt.getNodeCount(), caughtUp.getNodeCount());
+                if (found) {
+                    assertTrue(caughtUp.findPath(startCol, startRow, goalCol, goalRow, actual));
+                    assertWalkable(grid, actual, startCol, startRow, goalCol, goalRow);
+                }
+            }
+        }
+    }
+
+    @Test
+    void findsAWayExactlyWhenOneExists() {
+        // Walls enough to cut the maze into many separate parts, so that some queries have no way at all
+        Random random = new Random(5);
+        MazeGrid grid = new MazeGrid(64, 48, 6);
+        for (int i = 0; i < 1200; i++) {
+            grid.setCell(random.nextInt(64), random.nextInt(48), 0);
+        }
+        PathfindingService pathfinding = new PathfindingService(grid, SECTOR_SIZE);
+        IntArray path = new IntArray();
+
+        for (int i = 0; i < 300; i++) {
+            int startCol = random.nextInt(64);
+            int startRow = random.nextInt(48);
+            int goalCol = random.nextInt(64);
+            int goalRow = random.nextInt(48);
+            if (grid.getCell(startCol, startRow) == 0 || grid.getCell(goalCol, goalRow) == 0) {
+                continue;
+            }
+            int shortest = walkingDistance(grid, startCol, startRow, goalCol, goalRow);
+            boolean found = pathfinding.findPath(startCol, startRow, goalCol, goalRow, path);
+            assertEquals(shortest >= 0, found, "From " + startCol + "," + startRow + " to " + goalCol + "," + goalRow);
+            if (found) {
+                assertWalkable(grid, path, startCol, startRow, goalCol, goalRow);
+                assertTrue(path.size - 1 >= shortest);
+            }
+        }
+    }
+
+    // Breadth-first search over every cell, or -1 if there is no way
+    private static int walkingDistance(MazeGrid grid, int startCol, int startRow, int goalCol, int goalRow) {
+        int width = grid.getWidth();
+        int[] distance = new int[width * grid.getHeight()];
+        Arrays.fill(distance, -1);
+        IntArray queue = new IntArray();
+        distance[startRow * width + startCol] = 0;
+        queue.add(startRow * width + startCol);
+        for (int head = 0; head < queue.size; head++) {
+            int cell = queue.get(head);
+            int[] neighbors = {cell % width + 1 < width ? cell + 1 : -1, cell % width > 0 ? cell - 1 : -1,
+                    cell + width < distance.length ? cell + width : -1, cell - width};
+            for (int next : neighbors) {
+                if (next >= 0 && distance[next] < 0 && grid.getCell(next % width, next / width) != 0) {
+                    distance[next] = distance[cell] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return distance[goalRow * width + goalCol];
+    }
+
+    private static void assertWalkable(MazeGrid grid, IntArray path, int startCol, int startRow,
+                                       int goalCol, int goalRow) {
+        int width = grid.getWidth();
+        assertEquals(startRow * width + startCol, path.first());
+        assertEquals(goalRow * width + goalCol, path.peek());
+        for (int i = 0; i < path.size; i++) {
+            int cell = path.get(i);
+            assertTrue(grid.getCell(cell % width, cell / width) != 0, "Cell " + cell + " is a wall");
+            if (i > 0) {
+                int previous = path.get(i - 1);
+                int steps = Math.abs(cell % width - previous % width) + Math.abs(cell / width - previous / width);
+                assertEquals(1, steps, "Cells " + previous + " and " + cell + " are not neighbors");
+            }
+        }
+    }
+}
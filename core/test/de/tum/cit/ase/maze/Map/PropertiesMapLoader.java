@@ -0,0 +1,77 @@
+package de.tum.cit.ase.maze.Map;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * The `PropertiesMapLoader` class is the original `Properties`-based map loader, kept for the tests only.
+ * `StreamingMapParser` has to read every map into the same cells as this loader does.
+ */
+class PropertiesMapLoader {
+
+    private PropertiesMapLoader() {
+    }
+
+    /**
+     * Loads a maze map from the specified file and converts it into a 2D array.
+     *
+     * @param mapName The name of the file containing maze properties.
+     * @return A 2D array indexed as [y][x] representing the loaded maze.
+     * @throws IOException If the file cannot be read.
+     */
+    static int[][] loadMap(String mapName) throws IOException {
+        Properties mapProperties = new Properties();
+
+        try (FileInputStream inputStream = new FileInputStream(mapName)) {
+            mapProperties.load(inputStream);
+        }
+
+        int maxRow = 0;
+        int maxCol = 0;
+
+        // Iterate through the keys and find the maximum coordinates
+        for (Object key : mapProperties.keySet()) {
+            String[] coordinates = key.toString().split(",");
+
+            // Check if the key is a valid coordinate
+            if (coordinates.length != 2) {
+                continue; // Skip invalid coordinates
+            }
+
+            int row = Integer.parseInt(coordinates[0]);
+            int col = Integer.parseInt(coordinates[1]);
+
+            maxRow = Math.max(maxRow, row);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        // Create the array dynamically based on maximum coordinates
+        int[][] mapArray = new int[maxRow + 1][maxCol + 1];
+
+        // Initialize the array with default value 6
+        for (int i = 0; i <= maxRow; i++) {
+            for (int j = 0; j <= maxCol; j++) {
+                mapArray[i][j] = 6;
+            }
+        }
+
+        // Parse properties and fill the 2D array
+        for (Object key : mapProperties.keySet()) {
+            String[] coordinates = key.toString().split(",");
+
+            // Check if the key is a valid coordinate
+            if (coordinates.length != 2) {
+                continue; // Skip invalid coordinates
+            }
+
+            int row = Integer.parseInt(coordinates[0]);
+            int col = Integer.parseInt(coordinates[1]);
+
+            int value = Integer.parseInt(mapProperties.getProperty(key.toString()));
+            mapArray[col][row] = value;
+        }
+
+        return mapArray;
+    }
+}
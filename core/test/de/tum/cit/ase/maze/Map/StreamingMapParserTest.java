@@ -0,0 +1,73 @@
+package de.tum.cit.ase.maze.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for `StreamingMapParser`, against the original `Properties`-based loader and against broken files.
+ */
+class StreamingMapParserTest {
+
+    @Test
+    void shippedLevelsMatchPropertiesLoader() throws IOException {
+        for (int level = 1; level <= 5; level++) {
+            String mapName = "maps/level-" + level + ".properties";
+            int[][] expected = PropertiesMapLoader.loadMap(mapName);
+            MazeGrid grid = StreamingMapParser.parse(mapName);
+
+            assertEquals(expected[0].length, grid.getWidth(), mapName + " width");
+            assertEquals(expected.length, grid.getHeight(), mapName + " height");
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    assertEquals(expected[y][x], grid.getCell(x, y), mapName + " cell (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void indexesSpecialCellsWhileParsing() throws IOException {
+        MazeGrid grid = parse("0,0=1\n2,1=5\n1,1=3\n2,1=0\n");
+
+        assertEquals(0, grid.getIndex().getEntryX());
+        assertEquals(0, grid.getIndex().getEntryY());
+        assertEquals(1, grid.getIndex().getCount(LevelIndex.TRAP));
+        assertEquals(0, grid.getIndex().getCount(LevelIndex.KEY)); // Overwritten by a wall
+    }
+
+    @Test
+    void skipsCommentsAndUnknownKeysAndDefaultsMissingCells() throws IOException {
+        MazeGrid grid = parse("# a comment\n! another\nName = test\n1,2 : 0\r\n\n0,0=2");
+
+        assertEquals(2, grid.getWidth());
+        assertEquals(3, grid.getHeight());
+        assertEquals(0, grid.getCell(1, 2));
+        assertEquals(2, grid.getCell(0, 0));
+        assertEquals(6, grid.getCell(1, 0));
+    }
+
+    @Test
+    void rejectsValuesLikeIntegerParseInt() {
+        assertThrows(NumberFormatException.class, () -> parse("1,1=wall"));
+        assertThrows(NumberFormatException.class, () -> parse("1,1=99999999999"));
+    }
+
+    @Test
+    void rejectsSizesTooLargeForAGrid() {
+        assertThrows(IOException.class, () -> parse("Width=100000\nHeight=100000\n"));
+        assertThrows(IOException.class, () -> parse("Width=99999999999\n"));
+        assertThrows(IOException.class, () -> parse("70000,70000=0"));
+        assertThrows(IOException.class, () -> parse("99999999999,1=0"));
+        assertThrows(IOException.class, () -> parse("1,2147483647=0"));
+    }
+
+    private static MazeGrid parse(String properties) throws IOException {
+        return StreamingMapParser.parse(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+}
@@ -0,0 +1,85 @@
+package de.tum.cit.ase.maze.World;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for `GameEventQueue`, on one thread and with the world reporting from another thread.
+ */
+class GameEventQueueTest {
+
+    private final GameEventQueue queue = new GameEventQueue();
+    private final List<String> drained = new ArrayList<>();
+    private final GameEventQueue.Consumer consumer =
+            event -> drained.add(event.getType() + " x" + event.getCount() + " at " + event.getElapsedTime());
+
+    @Test
+    void mergesEventsOfATypeAndHandsThemOutInTheOrderOfTheTypes() {
+        queue.drain(consumer);
+        assertTrue(drained.isEmpty());
+
+        queue.onGameWon(4.5f);
+        queue.onLifeLost(false);
+        queue.onKeyCollected();
+        queue.onLifeLost(false);
+        queue.onLifeLost(true);
+        queue.onLifeLost(false);
+        queue.drain(consumer);
+        assertEquals("[TRAP_HIT x3 at 0.0, ENEMY_HIT x1 at 0.0, KEY_PICKED x1 at 0.0, EXIT_REACHED x1 at 4.5]",
+                drained.toString());
+
+        drained.clear();
+        queue.drain(consumer);
+        assertTrue(drained.isEmpty(), "Every event is handed out once");
+    }
+
+    @Test
+    void keepsWorkingWhenTheRingWrapsAround() {
+        for (int frame = 0; frame < 1000; frame++) {
+            int keys = frame % 7;
+            for (int i = 0; i < keys; i++) {
+                queue.onKeyCollected();
+            }
+            drained.clear();
+            queue.drain(consumer);
+            assertEquals(keys == 0 ? "[]" : "[KEY_PICKED x" + keys + " at 0.0]", drained.toString(), "Frame " + frame);
+        }
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void dropsAndCountsEventsWhenFull() {
+        for (int i = 0; i < 100; i++) {
+            queue.onLifeLost(true);
+        }
+        queue.onGameOver();
+        queue.drain(consumer);
+
+        assertEquals("[ENEMY_HIT x64 at 0.0]", drained.toString());
+        assertEquals(37, queue.getDroppedCount());
+    }
+
+    @Test
+    void losesNoEventsBetweenThreads() throws InterruptedException {
+        int pushed = 1_000_000;
+        long[] delivered = {0};
+        Thread world = new Thread(() -> {
+            for (int i = 0; i < pushed; i++) {
+                queue.onLifeLost(i % 2 == 0);
+            }
+        });
+        world.start();
+        while (world.isAlive()) {
+            queue.drain(event -> delivered[0] += event.getCount());
+        }
+        world.join();
+        queue.drain(event -> delivered[0] += event.getCount());
+
+        assertEquals(pushed, delivered[0] + queue.getDroppedCount(), "Every event is either delivered or dropped");
+    }
+}
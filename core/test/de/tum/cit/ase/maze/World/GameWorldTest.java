@@ -0,0 +1,95 @@
+package de.tum.cit.ase.maze.World;
+
+import de.tum.cit.ase.maze.Map.LevelIndex;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the rules of `GameWorld`, run without a window.
+ */
+class GameWorldTest {
+
+    private static final float STEP = 1 / 120f;
+
+    @Test
+    void pickingUpAKeyPlacesOneNewKeyNextToIt() {
+        // A corridor along row 1, walled in, with the entry on the left and a key further right
+        MazeGrid maze = corridor(12);
+        maze.setCell(1, 1, 1);
+        maze.setCell(5, 1, 5);
+        CountingListener listener = new CountingListener();
+        GameWorld world = new GameWorld(maze, listener);
+
+        walk(world, 1, 2f);
+
+        assertTrue(world.hasKey());
+        assertEquals(1, listener.keysCollected);
+        assertEquals(5, maze.getCell(4, 1), "new key left of the collected one");
+        assertEquals(5, maze.getCell(5, 1));
+        assertEquals(0, maze.getCell(0, 0), "nothing is placed in the corner");
+        assertEquals(2, maze.getIndex().getCount(LevelIndex.KEY));
+    }
+
+    @Test
+    void newKeyNeverCoversSpecialCells() {
+        // The key is boxed in by the entry, a trap and walls, so there is no floor to put a new key on
+        MazeGrid maze = corridor(5);
+        maze.setCell(1, 1, 1);
+        maze.setCell(2, 1, 5);
+        maze.setCell(3, 1, 3);
+        GameWorld world = new GameWorld(maze, new CountingListener());
+
+        walk(world, 1, 0.5f);
+
+        assertTrue(world.hasKey());
+        assertEquals(1, maze.getCell(1, 1));
+        assertEquals(3, maze.getCell(3, 1));
+        assertEquals(1, maze.getIndex().getCount(LevelIndex.KEY));
+    }
+
+    private static MazeGrid corridor(int width) {
+        MazeGrid maze = new MazeGrid(width, 3, 0);
+        for (int x = 1; x < width - 1; x++) {
+            maze.setCell(x, 1, 6);
+        }
+        return maze;
+    }
+
+    private static void walk(GameWorld world, int moveX, float seconds) {
+        InputState input = new InputState();
+        input.setMove(moveX, 0);
+        for (float time = 0; time < seconds && !world.isFinished(); time += STEP) {
+            world.step(input, STEP);
+        }
+    }
+
+    static class CountingListener implements WorldListener {
+        int livesLost;
+        int keysCollected;
+        int gamesOver;
+        int gamesWon;
+
+        @Override
+        public void onLifeLost(boolean byEnemy) {
+            livesLost++;
+        }
+
+        @Override
+        public void onKeyCollected() {
+            keysCollected++;
+        }
+
+        @Override
+        public void onGameOver() {
+            gamesOver++;
+        }
+
+        @Override
+        public void onGameWon(float elapsedTime) {
+            gamesWon++;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package de.tum.cit.ase.maze.World;
+
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import de.tum.cit.ase.maze.Map.StreamingMapParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for `Replay`: its file format, and that playing a recorded session again ends where the session ended.
+ */
+class ReplayTest {
+
+    private static final int STEPS_PER_SECOND = 60;
+    private static final String LEVEL = "maps/level-1.properties";
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        // Runs around the lengths where the run length takes another byte
+        int[] runLengths = {1, 127, 128, 1, 16383, 16384, 2, 300000};
+        int[] runBits = {InputState.UP, 0, InputState.LEFT, InputState.UP | InputState.RIGHT,
+                InputState.DOWN, InputState.RIGHT, 0, InputState.DOWN | InputState.LEFT};
+        Replay replay = new Replay(LEVEL, 0x1234_5678_9abcL, STEPS_PER_SECOND);
+        InputState input = new InputState();
+        int steps = 0;
+        for (int run = 0; run < runLengths.length; run++) {
+            input.setBits(runBits[run]);
+            for (int i = 0; i < runLengths[run]; i++) {
+                replay.record(input);
+            }
+            steps += runLengths[run];
+        }
+
+        Replay read = Replay.read(new ByteArrayInputStream(toBytes(replay)));
+
+        assertEquals(LEVEL, read.getLevelId());
+        assertEquals(0x1234_5678_9abcL, read.getSeed());
+        assertEquals(STEPS_PER_SECOND, read.getStepsPerSecond());
+        assertEquals(steps, read.getStepCount());
+        assertArrayEquals(stepBits(replay), stepBits(read));
+    }
+
+    @Test
+    void rejectsBrokenFiles() throws IOException {
+        Replay replay = new Replay(LEVEL, 1, STEPS_PER_SECOND);
+        replay.record(new InputState());
+        byte[] bytes = toBytes(replay);
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 'X';
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(badMagic)));
+
+        byte[] badVersion = bytes.clone();
+        badVersion[4] = 99;
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(badVersion)));
+
+        // A run of 3 steps in a replay of 2 steps
+        ByteArrayOutputStream overLong = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(overLong);
+        out.writeInt(0x4d5a5250);
+        out.writeByte(1);
+        out.writeUTF(LEVEL);
+        out.writeLong(1);
+        out.writeShort(STEPS_PER_SECOND);
+        out.writeInt(2);
+        out.writeByte(InputState.UP);
+        out.writeByte(3);
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(overLong.toByteArray())));
+    }
+
+    @Test
+    void playingARecordedSessionEndsInTheSameState() throws IOException {
+        // A session played live, with the input changing every now and then, as the game screen records it
+        GameWorld live = new GameWorld(StreamingMapParser.parse(LEVEL), new GameWorldTest.CountingListener());
+        Replay replay = new Replay(LEVEL, 7, STEPS_PER_SECOND);
+        Random random = new Random(7);
+        InputState input = new InputState();
+        float step = 1f / STEPS_PER_SECOND;
+        for (int i = 0; i < 60 * STEPS_PER_SECOND && !live.isFinished(); i++) {
+            if (i % 20 == 0) {
+                input.setMove(random.nextInt(3) - 1, random.nextInt(3) - 1);
+            }
+            replay.record(input);
+            live.step(input, step);
+        }
+
+        MazeGrid level = StreamingMapParser.parse(LEVEL);
+        float entryX = new GameWorld(level.copy(), new GameWorldTest.CountingListener()).getCharacter().getPosition().x;
+        GameWorld replayed = Replay.read(new ByteArrayInputStream(toBytes(replay)))
+                .playHeadless(level, new GameWorldTest.CountingListener());
+
+        assertNotEquals(entryX, live.getCharacter().getPosition().x, "The session went somewhere");
+        assertEquals(live.getCharacter().getPosition(), replayed.getCharacter().getPosition());
+        assertArrayEquals(live.getHeartsStatus(), replayed.getHeartsStatus());
+        assertEquals(live.isFinished(), replayed.isFinished());
+        assertEquals(live.hasKey(), replayed.hasKey());
+        assertEquals(live.getElapsedTime(), replayed.getElapsedTime());
+    }
+
+    private static byte[] toBytes(Replay replay) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        replay.write(bytes);
+        return bytes.toByteArray();
+    }
+
+    private static int[] stepBits(Replay replay) {
+        int[] bits = new int[replay.getStepCount()];
+        InputState input = new InputState();
+        Replay.Player player = replay.play();
+        for (int i = 0; i < bits.length; i++) {
+            player.next(input);
+            bits[i] = input.getBits();
+        }
+        assertFalse(player.next(input), "More steps than counted");
+        return bits;
+    }
+}
@@ -0,0 +1,70 @@
+package de.tum.cit.ase.maze.World;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Tests for `SpatialHash`, against checking every entity.
+ */
+class SpatialHashTest {
+
+    private static final int ENTITIES = 200;
+
+    @Test
+    void findsTheSameEntitiesAsCheckingAll() {
+        Random random = new Random(23);
+        // A small table, so many cells share a slot and a query meets the same slot several times
+        SpatialHash hash = new SpatialHash(1, 64);
+        float[] x = new float[ENTITIES];
+        float[] y = new float[ENTITIES];
+        for (int id = 0; id < ENTITIES; id++) {
+            x[id] = random.nextFloat() * 600 - 100; // Also outside the maze
+            y[id] = random.nextFloat() * 600 - 100;
+            hash.add(id, x[id], y[id]);
+        }
+        IntArray found = new IntArray();
+        IntArray expected = new IntArray();
+
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(ENTITIES);
+            x[id] += random.nextFloat() * 100 - 50;
+            y[id] += random.nextFloat() * 100 - 50;
+            hash.update(id, x[id], y[id]);
+
+            float px = random.nextFloat() * 600 - 100;
+            float py = random.nextFloat() * 600 - 100;
+            float radius = random.nextFloat() * 60;
+            hash.query(px, py, radius, found);
+            expected.clear();
+            for (int other = 0; other < ENTITIES; other++) {
+                float dx = x[other] - px;
+                float dy = y[other] - py;
+                if (dx * dx + dy * dy < radius * radius) {
+                    expected.add(other);
+                }
+            }
+            assertSameIds(expected, found);
+
+            float right = px + random.nextFloat() * 100;
+            float top = py + random.nextFloat() * 100;
+            hash.queryRect(px, py, right, top, found);
+            expected.clear();
+            for (int other = 0; other < ENTITIES; other++) {
+                if (x[other] >= px && x[other] <= right && y[other] >= py && y[other] <= top) {
+                    expected.add(other);
+                }
+            }
+            assertSameIds(expected, found);
+        }
+    }
+
+    // Also fails if an entity was found twice
+    private static void assertSameIds(IntArray expected, IntArray found) {
+        found.sort();
+        assertArrayEquals(expected.toArray(), found.toArray());
+    }
+}
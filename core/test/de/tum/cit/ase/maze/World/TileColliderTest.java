@@ -0,0 +1,151 @@
+package de.tum.cit.ase.maze.World;
+
+import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.ase.maze.Map.MazeGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for `TileCollider`, moving a box like the character's through small mazes.
+ */
+class TileColliderTest {
+
+    private static final float DELTA = 1e-5f;
+
+    // The character's box: 0.6 cells wide from 0.2 cells right of its position, 0.4 cells high
+    private final TileCollider collider = new TileCollider(0.2f, 0, 0.6f, 0.4f);
+    private MazeGrid room;
+
+    @BeforeEach
+    void createRoom() {
+        room = grid(
+                "##########",
+                "#........#",
+                "#...T....#",
+                "#........#",
+                "#.....#..#",
+                "##########");
+    }
+
+    @Test
+    void stopsFlushAgainstAWall() {
+        Vector2 position = new Vector2(1, 1);
+        collider.move(room, position, 5, 0, null);
+
+        assertEquals(6 - 0.8f, position.x, DELTA, "The right edge of the box touches the wall in column 6");
+        assertEquals(1, position.y);
+        assertFalse(collider.isBlocked(room, position));
+
+        float flush = position.x;
+        collider.move(room, position, 0.001f, 0, null);
+        assertEquals(flush, position.x, DELTA, "Pushing on does not enter the wall");
+        collider.move(room, position, -0.5f, 0, null);
+        collider.move(room, position, 0.5f, 0, null);
+        assertEquals(flush, position.x, DELTA, "Backing off and coming back stops at the same place");
+    }
+
+    @Test
+    void slidesAlongAWallAndStopsInACorner() {
+        Vector2 position = new Vector2(6 - 0.8f, 1);
+        collider.move(room, position, 1, 0.5f, null);
+        assertEquals(6 - 0.8f, position.x, DELTA, "Blocked along x");
+        assertEquals(1.5f, position.y, DELTA, "Still moves along y");
+
+        position.set(1, 1);
+        collider.move(room, position, -3, -3, null);
+        assertEquals(1 - 0.2f, position.x, DELTA, "The left edge of the box touches the wall in column 0");
+        assertEquals(1, position.y, DELTA, "The bottom edge of the box touches the wall in row 0");
+    }
+
+    @Test
+    void doesNotTunnelThroughWallsOnLargeMoves() {
+        // A single probe at the destination would land in the open cells behind the wall
+        Vector2 position = new Vector2(1, 1);
+        collider.move(room, position, 6.5f, 0, null);
+        assertEquals(6 - 0.8f, position.x, DELTA);
+
+        position.set(2, 3);
+        collider.move(room, position, 0, -100, null);
+        assertEquals(1, position.y, DELTA, "Stops on the bottom wall, not below the maze");
+
+        position.set(2, 3);
+        collider.move(room, position, 0, 100, null);
+        assertEquals(5 - 0.4f, position.y, DELTA, "Stops under the top wall, not above the maze");
+    }
+
+    @Test
+    void edgesWithinEpsilonOfAWallDoNotOverlapIt() {
+        // 4.2 + 0.2 + 0.6 is not exactly 6 in floats
+        Vector2 position = new Vector2(4.2f, 1);
+        assertFalse(collider.isBlocked(room, position));
+        position.x = 6 - 0.8f + 0.5e-4f;
+        assertFalse(collider.isBlocked(room, position), "Less than EPSILON into the wall counts as flush");
+        position.x = 6 - 0.8f + 0.01f;
+        assertTrue(collider.isBlocked(room, position), "Clearly inside the wall");
+
+        // Sunk into the wall below by less than EPSILON, moving sideways is not blocked by it
+        position.set(1, 1 - 0.5e-4f);
+        collider.move(room, position, 2, 0, null);
+        assertEquals(3, position.x, DELTA);
+    }
+
+    @Test
+    void reportsEveryTouchedCellOnce() {
+        List<String> touched = new ArrayList<>();
+        Vector2 position = new Vector2(1, 3);
+        collider.move(room, position, 6, 0, (col, row, type) -> touched.add(col + "," + row + ":" + type));
+
+        assertTrue(touched.contains("1,3:6"), "The start cell: " + touched);
+        assertTrue(touched.contains("4,3:3"), "The trap stepped over in one move: " + touched);
+        assertEquals(new HashSet<>(touched).size(), touched.size(), "Duplicates in " + touched);
+
+        touched.clear();
+        position.set(1.5f, 1.2f);
+        collider.move(room, position, 2.3f, 1.7f, (col, row, type) -> touched.add(col + "," + row));
+        assertEquals(new HashSet<>(touched).size(), touched.size(), "Duplicates in " + touched);
+    }
+
+    @Test
+    void movesTheSameDistanceAtAnyFrameRate() {
+        MazeGrid corridor = grid(
+                "############################",
+                "#..........................#",
+                "############################");
+        Vector2 fast = new Vector2(1, 1);
+        Vector2 slow = new Vector2(1, 1);
+        Vector2 once = new Vector2(1, 1);
+        for (int i = 0; i < 120; i++) {
+            collider.move(corridor, fast, 6f / 120, 0, null);
+        }
+        for (int i = 0; i < 30; i++) {
+            collider.move(corridor, slow, 6f / 30, 0, null);
+        }
+        collider.move(corridor, once, 6, 0, null);
+
+        assertEquals(7, fast.x, 1e-3f);
+        assertEquals(7, slow.x, 1e-4f);
+        assertEquals(7, once.x, DELTA);
+    }
+
+    // Builds a maze from rows of text, the top row first: # is a wall, T a trap and . the floor
+    private static MazeGrid grid(String... rows) {
+        int height = rows.length;
+        MazeGrid grid = new MazeGrid(rows[0].length(), height, 6);
+        for (int row = 0; row < height; row++) {
+            String line = rows[height - 1 - row];
+            for (int col = 0; col < line.length(); col++) {
+                char c = line.charAt(col);
+                grid.setCell(col, row, c == '#' ? 0 : c == 'T' ? 3 : 6);
+            }
+        }
+        return grid;
+    }
+}
@@ -3,9 +3,19 @@
 import com.badlogic.gdx.Graphics;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import de.tum.cit.ase.maze.Map.MapLoader;
+import de.tum.cit.ase.maze.Map.MazeMap;
 import de.tum.cit.ase.maze.Maze.MazeRunnerGame;
+import de.tum.cit.ase.maze.World.GameWorld;
+import de.tum.cit.ase.maze.World.Replay;
+import de.tum.cit.ase.maze.World.WorldListener;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
 
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Maze Runner game.
  * It sets up the game window and launches the game using LibGDX framework.
@@ -13,10 +23,26 @@
 public class DesktopLauncher {
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
+	 * With "--replay file", a recorded session is played at normal speed instead of showing the menu;
+	 * adding "--headless" plays it as fast as possible without opening a window and prints the result.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments
 	 */
 	public static void main(String[] arg) {
+		String replayPath = null;
+		boolean headless = false;
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("--replay") && i + 1 < arg.length) {
+				replayPath = arg[++i];
+			} else if (arg[i].equals("--headless")) {
+				headless = true;
+			}
+		}
+		if (replayPath != null && headless) {
+			playHeadless(replayPath);
+			return;
+		}
+
 		// Configuration for the game window
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setTitle("Maze Runner"); // Set the window title
@@ -32,6 +58,58 @@ public static void main(String[] arg) {
 		config.setForegroundFPS(60); // Set the foreground frames per second
 
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		MazeRunnerGame game = new MazeRunnerGame(new DesktopFileChooser());
+		game.setStartupReplay(replayPath);
+		new Lwjgl3Application(game, config);
+	}
+
+	/**
+	 * Plays a replay without a window as fast as possible and prints how it ended and how fast it ran.
+	 *
+	 * @param replayPath The path of the replay file.
+	 */
+	private static void playHeadless(String replayPath) {
+		Replay replay;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(replayPath))) {
+			replay = Replay.read(in);
+		} catch (IOException e) {
+			System.err.println("Could not read " + replayPath + ": " + e.getMessage());
+			return;
+		}
+		MazeMap maze = MapLoader.openMap(replay.getLevelId());
+		if (maze == null) {
+			System.err.println("Could not load the level " + replay.getLevelId());
+			return;
+		}
+
+		int[] livesLost = new int[1];
+		String[] outcome = {"unfinished"};
+		long start = System.nanoTime();
+		GameWorld world = replay.playHeadless(maze, new WorldListener() {
+			@Override
+			public void onLifeLost(boolean byEnemy) {
+				livesLost[0]++;
+			}
+
+			@Override
+			public void onKeyCollected() {
+			}
+
+			@Override
+			public void onGameOver() {
+				outcome[0] = "lost";
+			}
+
+			@Override
+			public void onGameWon(float elapsedTime) {
+				outcome[0] = "won";
+			}
+		});
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%s: %s after %.1f s of play, %d lives lost%n",
+				replay.getLevelId(), outcome[0], world.getElapsedTime(), livesLost[0]);
+		System.out.printf("%d steps in %.3f s (%.0fx realtime)%n",
+				replay.getStepCount(), seconds, world.getElapsedTime() / seconds);
 	}
 }